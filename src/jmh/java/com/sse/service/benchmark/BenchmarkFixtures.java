@@ -0,0 +1,48 @@
+package com.sse.service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Representative payloads shared by the benchmarks, configured the way Spring Boot configures
+ * the application's {@link ObjectMapper}.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static TransactionsRequest request() {
+        var request = new TransactionsRequest();
+        request.setId(UUID.randomUUID());
+        request.setStatus("COMPLETED");
+        request.setUserId("user-42");
+        request.setAmount(new BigDecimal("1250.75"));
+        request.setCurrency("USD");
+        request.setDescription("Card payment at merchant 4711");
+        return request;
+    }
+
+    static TransactionsEntity entity(long id) {
+        var entity = new TransactionsEntity();
+        entity.setId(id);
+        entity.setTransactionId(UUID.randomUUID());
+        entity.setStatus("COMPLETED");
+        entity.setUserId("user-42");
+        entity.setAmount(new BigDecimal("1250.75"));
+        entity.setCurrency("USD");
+        entity.setDescription("Card payment at merchant 4711");
+        entity.setCreatedAt(LocalDateTime.now());
+        return entity;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sse.service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson encoding of a transaction, as a pre-rendered SSE frame and as the bare JSON that
+ * {@code ServerSentEvent} serialization would produce per subscriber.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameEncodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TransactionFrameEncoder encoder;
+    private TransactionsEntity transaction;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        encoder = new TransactionFrameEncoder(objectMapper);
+        transaction = BenchmarkFixtures.entity(1L);
+    }
+
+    @Benchmark
+    public TransactionFrame sseFrame() {
+        return encoder.encode(transaction);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sse.service.benchmark;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.config.properties.IngestProperties;
+import com.sse.service.mapper.TransactionMapper;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.ingest.TransactionRequestDecoder;
+import com.sse.service.service.ingest.TransactionValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * The single-transaction ingest body decoded the way {@code bodyToMono} and the mapper did it,
+ * against the streaming decoder. Compare {@code gc.alloc.rate.norm} for bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestDecodingBenchmark {
+
+    private static final ResolvableType REQUEST_TYPE = ResolvableType.forClass(TransactionsRequest.class);
+
+    private final TransactionMapper mapper = new TransactionMapper();
+    private Jackson2JsonDecoder jsonDecoder;
+    private TransactionRequestDecoder requestDecoder;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws Exception {
+        var objectMapper = BenchmarkFixtures.objectMapper();
+        jsonDecoder = new Jackson2JsonDecoder(objectMapper);
+        requestDecoder = new TransactionRequestDecoder(objectMapper, new IngestProperties(), new TransactionValidator());
+        body = objectMapper.writeValueAsBytes(BenchmarkFixtures.request());
+    }
+
+    @Benchmark
+    public TransactionsEntity databind() {
+        return jsonDecoder.decodeToMono(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)), REQUEST_TYPE,
+                        MediaType.APPLICATION_JSON, Map.of())
+                .map(request -> mapper.toEntity((TransactionsRequest) request))
+                .block();
+    }
+
+    @Benchmark
+    public TransactionsEntity streaming() {
+        return requestDecoder.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))).block();
+    }
+}
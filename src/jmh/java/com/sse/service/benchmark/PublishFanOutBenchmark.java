@@ -0,0 +1,85 @@
+package com.sse.service.benchmark;
+
+import com.sse.service.config.properties.FanOutProperties;
+import com.sse.service.config.properties.ReplayProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.fanout.SlowConsumerPolicy;
+import com.sse.service.service.fanout.SlowConsumerStats;
+import com.sse.service.service.fanout.SubscriptionFilter;
+import com.sse.service.service.fanout.SubscriptionRegistry;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import com.sse.service.service.replay.ReplayBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The local publish path, encoding, the replay ring append and dispatch to the registry, against
+ * a growing number of unfiltered subscribers that request unbounded demand. Every operation waits
+ * until each subscriber has received the event, so it covers delivery across the fan-out shards;
+ * comparing shard counts shows how delivery scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublishFanOutBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    public int subscribers;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private TransactionFrameEncoder encoder;
+    private ReplayBuffer replayBuffer;
+    private SubscriptionRegistry registry;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private final LongAdder delivered = new LongAdder();
+    private long expected;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        var fanOutProperties = new FanOutProperties();
+        fanOutProperties.setShards(shards);
+        registry = new SubscriptionRegistry(fanOutProperties, new SlowConsumerStats());
+        encoder = new TransactionFrameEncoder(BenchmarkFixtures.objectMapper());
+        replayBuffer = new ReplayBuffer(new ReplayProperties());
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(registry.subscribe(SubscriptionFilter.ALL, SlowConsumerPolicy.DROP_OLDEST)
+                    .subscribe(entry -> delivered.increment()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+        registry.shutdown();
+    }
+
+    @Benchmark
+    public void publishTransaction() {
+        TransactionsEntity transaction = BenchmarkFixtures.entity(++nextId);
+        registry.dispatch(replayBuffer.append(encoder.encode(transaction)));
+        expected += subscribers;
+        while (delivered.sum() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sse.service.benchmark;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import com.sse.service.service.stream.FrameCompressor;
+import com.sse.service.service.stream.StreamCompression;
+import com.sse.service.service.stream.StreamEncoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode cost per event and bytes on the wire per event for every stream encoding, plain and
+ * compressed the way a stream compresses: one long-lived compressor, sync-flushed per frame.
+ * Bytes per event are printed when each trial ends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamEncodingBenchmark {
+
+    private static final int DISTINCT_TRANSACTIONS = 1024;
+
+    @Param({"SSE", "NDJSON", "SMILE"})
+    public String encoding;
+
+    @Param({"none", "gzip", "deflate"})
+    public String compression;
+
+    private StreamEncoding streamEncoding;
+    private TransactionFrameEncoder encoder;
+    private FrameCompressor compressor;
+    private TransactionsEntity[] transactions;
+    private int next;
+    private long events;
+    private long bytes;
+
+    @Setup
+    public void setUp() {
+        streamEncoding = StreamEncoding.valueOf(encoding);
+        encoder = new TransactionFrameEncoder(BenchmarkFixtures.objectMapper());
+        compressor = "none".equals(compression)
+                ? null
+                : new FrameCompressor(StreamCompression.valueOf(compression.toUpperCase(Locale.ROOT)), -1);
+        transactions = new TransactionsEntity[DISTINCT_TRANSACTIONS];
+        for (var i = 0; i < transactions.length; i++) {
+            transactions[i] = BenchmarkFixtures.entity(i + 1L);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s/%s: %.1f bytes/event%n", encoding, compression, (double) bytes / Math.max(events, 1));
+        if (compressor != null) {
+            compressor.release();
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        var transaction = transactions[next++ & (DISTINCT_TRANSACTIONS - 1)];
+        // a fresh frame every time, so the per-frame render cache does not hide the encode cost
+        var frame = encoder.render(encoder.encode(transaction), streamEncoding);
+        var wire = compressor == null ? frame : compressor.compress(frame);
+        events++;
+        bytes += wire.length;
+        return wire;
+    }
+}
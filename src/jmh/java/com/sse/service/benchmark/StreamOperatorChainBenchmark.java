@@ -0,0 +1,63 @@
+package com.sse.service.benchmark;
+
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import com.sse.service.service.replay.ReplayBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-event cost of the operators between a subscription and the connection on
+ * {@code /stream/new}: the frame mapping and the {@code publishOn} hop with the service's
+ * prefetch. {@code hop=false} isolates the scheduler hand-off from the rest of the chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamOperatorChainBenchmark {
+
+    private static final int EVENTS = 10_000;
+    private static final int PUBLISH_ON_PREFETCH = 16;
+
+    @Param({"true", "false"})
+    public boolean hop;
+
+    private List<ReplayBuffer.Entry> entries;
+
+    @Setup
+    public void setUp() {
+        var encoder = new TransactionFrameEncoder(BenchmarkFixtures.objectMapper());
+        entries = new ArrayList<>(EVENTS);
+        for (int i = 1; i <= EVENTS; i++) {
+            entries.add(new ReplayBuffer.Entry(i, encoder.encode(BenchmarkFixtures.entity(i)), Instant.now()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void streamNewTransactions(Blackhole blackhole) {
+        Flux<TransactionFrame> frames = Flux.fromIterable(entries).map(ReplayBuffer.Entry::frame);
+        if (hop) {
+            frames = frames.publishOn(Schedulers.parallel(), PUBLISH_ON_PREFETCH);
+        }
+        frames.doOnNext(blackhole::consume).blockLast();
+    }
+}
@@ -0,0 +1,35 @@
+package com.sse.service.benchmark;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.mapper.TransactionMapper;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    private final TransactionMapper mapper = new TransactionMapper();
+    private TransactionsRequest request;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkFixtures.request();
+    }
+
+    @Benchmark
+    public TransactionsEntity toEntity() {
+        return mapper.toEntity(request);
+    }
+}
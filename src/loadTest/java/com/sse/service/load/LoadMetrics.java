@@ -0,0 +1,101 @@
+package com.sse.service.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters of a load run. Interval recorders feed the per-second lines,
+ * the cumulative histograms feed the final report.
+ */
+final class LoadMetrics {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Recorder ingestInterval = new Recorder(MAX_TRACKABLE_NANOS, 3);
+    private final Recorder deliveryInterval = new Recorder(MAX_TRACKABLE_NANOS, 3);
+    private final Histogram ingest = new Histogram(MAX_TRACKABLE_NANOS, 3);
+    private final Histogram delivery = new Histogram(MAX_TRACKABLE_NANOS, 3);
+    private Histogram ingestSample;
+    private Histogram deliverySample;
+
+    final LongAdder posted = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder shed = new LongAdder();
+    final LongAdder received = new LongAdder();
+    final LongAdder disconnects = new LongAdder();
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final long startHeap = memory.getHeapMemoryUsage().getUsed();
+    private long maxHeap = startHeap;
+    private long lastPosted;
+    private long lastReceived;
+
+    void recordIngest(long nanos) {
+        ingestInterval.recordValue(Math.min(nanos, MAX_TRACKABLE_NANOS));
+    }
+
+    void recordDelivery(long nanos) {
+        deliveryInterval.recordValue(Math.min(nanos, MAX_TRACKABLE_NANOS));
+    }
+
+    static void header(PrintStream out) {
+        out.printf("%6s %10s %10s %10s %10s %10s %10s %8s%n",
+                "t(s)", "post/s", "recv/s", "ingest p50", "ingest p99", "lag p50", "lag p99", "heap MB");
+    }
+
+    /**
+     * Prints one line for the interval since the previous call; expected once per second.
+     */
+    synchronized void interval(PrintStream out, long elapsedSeconds) {
+        ingestSample = ingestInterval.getIntervalHistogram(ingestSample);
+        deliverySample = deliveryInterval.getIntervalHistogram(deliverySample);
+        ingest.add(ingestSample);
+        delivery.add(deliverySample);
+
+        var heap = memory.getHeapMemoryUsage().getUsed();
+        maxHeap = Math.max(maxHeap, heap);
+        var posts = posted.sum();
+        var receipts = received.sum();
+        out.printf("%6d %10d %10d %10s %10s %10s %10s %8d%n", elapsedSeconds,
+                posts - lastPosted, receipts - lastReceived,
+                millis(ingestSample, 50), millis(ingestSample, 99),
+                millis(deliverySample, 50), millis(deliverySample, 99),
+                heap / (1024 * 1024));
+        lastPosted = posts;
+        lastReceived = receipts;
+    }
+
+    synchronized void report(PrintStream out, LoadTestSettings settings, long elapsedNanos, long expected) {
+        var seconds = elapsedNanos / 1e9;
+        out.println();
+        out.printf("Offered %d POST/s for %s with %d /stream/new and %d /stream/all connections%n",
+                settings.rate(), settings.duration(), settings.newConnections(), settings.allConnections());
+        out.printf("POST    ok %d, failed %d, shed %d, throughput %.0f/s%n",
+                posted.sum(), failed.sum(), shed.sum(), posted.sum() / seconds);
+        out.printf("SSE     received %d of %d expected, dropped %d, disconnects %d, throughput %.0f/s%n",
+                received.sum(), expected, Math.max(0, expected - received.sum()), disconnects.sum(),
+                received.sum() / seconds);
+        summary(out, "ingest", ingest);
+        summary(out, "lag", delivery);
+        out.printf("heap    start %d MB, max %d MB, growth %d MB (this JVM)%n",
+                startHeap / (1024 * 1024), maxHeap / (1024 * 1024), (maxHeap - startHeap) / (1024 * 1024));
+    }
+
+    private static void summary(PrintStream out, String name, Histogram histogram) {
+        out.printf("%-7s p50 %s ms, p99 %s ms, p999 %s ms, max %s ms (n=%d)%n", name,
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                String.format("%.2f", histogram.getMaxValue() / 1e6), histogram.getTotalCount());
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0
+                ? "-"
+                : String.format("%.2f", histogram.getValueAtPercentile(percentile) / 1e6);
+    }
+}
@@ -0,0 +1,199 @@
+package com.sse.service.load;
+
+import com.sse.service.SseServiceApplication;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Open-loop load generator: offers a fixed POST rate to {@code /api/transactions} while holding
+ * SSE connections on {@code /stream/new} and {@code /stream/all}, and reports ingest latency,
+ * publish-to-receive delay, dropped events and heap growth once per second and at the end.
+ *
+ * <p>Every posted transaction carries its send time in {@code description}, so the delay is
+ * measured on receipt without keeping per-event state in the generator.
+ */
+public final class LoadTest {
+
+    private static final String TRANSACTIONS = "/api/transactions";
+    private static final String STREAM_NEW = "/api/transactions/stream/new";
+    private static final String STREAM_ALL = "/api/transactions/stream/all";
+    private static final String SENT_AT_MARKER = "\"description\":\"load:";
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int TICKS_PER_SECOND = 100;
+    private static final int USERS = 1_000;
+
+    private final LoadTestSettings settings;
+    private final LoadMetrics metrics = new LoadMetrics();
+    private final HttpClient ingestClient;
+    private final HttpClient streamClient;
+    private final long runStart = System.nanoTime();
+
+    private LoadTest(LoadTestSettings settings, String baseUrl) {
+        this.settings = settings;
+        this.ingestClient = HttpClient.create(ConnectionProvider.builder("load-ingest")
+                        .maxConnections(settings.maxInFlight())
+                        .build())
+                .baseUrl(baseUrl)
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+        this.streamClient = HttpClient.create(ConnectionProvider.builder("load-stream")
+                        .maxConnections(Math.max(1, settings.connections()))
+                        .build())
+                .baseUrl(baseUrl)
+                .responseTimeout(Duration.ofDays(1));
+    }
+
+    public static void main(String[] args) {
+        var settings = LoadTestSettings.fromSystemProperties();
+        if (!settings.embedded()) {
+            new LoadTest(settings, settings.baseUrl()).run();
+            return;
+        }
+        try (var postgres = new PostgreSQLContainer<>("postgres:latest")
+                .withUsername("root")
+                .withPassword("password")
+                .withDatabaseName("transaction_service")) {
+            postgres.start();
+            try (var instance = startInstance(postgres)) {
+                var port = ((ReactiveWebServerApplicationContext) instance).getWebServer().getPort();
+                new LoadTest(settings, "http://localhost:" + port).run();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startInstance(PostgreSQLContainer<?> postgres) {
+        return new SpringApplicationBuilder(SseServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.liquibase.url=" + postgres.getJdbcUrl(),
+                        "spring.r2dbc.url=" + postgres.getJdbcUrl().replace("jdbc", "r2dbc"),
+                        "spring.r2dbc.username=" + postgres.getUsername(),
+                        "spring.r2dbc.password=" + postgres.getPassword())
+                .run();
+    }
+
+    private void run() {
+        var subscribers = new ArrayList<Disposable>();
+        for (int i = 0; i < settings.newConnections(); i++) {
+            subscribers.add(subscribe(STREAM_NEW));
+        }
+        for (int i = 0; i < settings.allConnections(); i++) {
+            subscribers.add(subscribe(STREAM_ALL));
+        }
+        // give every connection time to be registered before the first event is published
+        Mono.delay(Duration.ofSeconds(2)).block();
+
+        LoadMetrics.header(System.out);
+        var loadStart = System.nanoTime();
+        var reporter = Flux.interval(Duration.ofSeconds(1), Duration.ofSeconds(1))
+                .subscribe(second -> metrics.interval(System.out, second + 1));
+
+        offerLoad().blockLast();
+        Mono.delay(settings.drain()).block();
+
+        reporter.dispose();
+        subscribers.forEach(Disposable::dispose);
+        metrics.report(System.out, settings, System.nanoTime() - loadStart,
+                metrics.posted.sum() * settings.connections());
+    }
+
+    /**
+     * Emits {@code rate} POSTs per second in 10 ms ticks regardless of how fast the service
+     * answers; ticks that cannot start because {@code maxInFlight} POSTs are outstanding are
+     * shed and counted rather than delayed.
+     */
+    private Flux<Integer> offerLoad() {
+        var ticks = settings.duration().toMillis() / TICK.toMillis();
+        return Flux.interval(TICK)
+                .take(ticks)
+                .onBackpressureDrop(tick -> metrics.shed.add(postsInTick(tick)))
+                .flatMapIterable(tick -> Collections.nCopies(postsInTick(tick), tick), 1)
+                .flatMap(tick -> post(), settings.maxInFlight());
+    }
+
+    private int postsInTick(long tick) {
+        long rate = settings.rate();
+        return (int) (rate * (tick + 1) / TICKS_PER_SECOND - rate * tick / TICKS_PER_SECOND);
+    }
+
+    private Mono<Integer> post() {
+        return Mono.defer(() -> {
+            var start = System.nanoTime();
+            return ingestClient.post()
+                    .uri(TRANSACTIONS)
+                    .send(ByteBufFlux.fromString(Mono.just(transaction(start))))
+                    .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                    .doOnNext(status -> {
+                        metrics.recordIngest(System.nanoTime() - start);
+                        if (status == 200) {
+                            metrics.posted.increment();
+                        } else {
+                            metrics.failed.increment();
+                        }
+                    })
+                    .onErrorResume(e -> {
+                        metrics.failed.increment();
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private Disposable subscribe(String path) {
+        var buffer = new StringBuilder();
+        return streamClient.get()
+                .uri(path)
+                .responseContent()
+                .asString()
+                .concatMapIterable(chunk -> completeEvents(buffer, chunk))
+                .subscribe(this::received, e -> metrics.disconnects.increment());
+    }
+
+    private static List<String> completeEvents(StringBuilder buffer, String chunk) {
+        buffer.append(chunk);
+        var events = new ArrayList<String>();
+        int end;
+        while ((end = buffer.indexOf("\n\n")) >= 0) {
+            events.add(buffer.substring(0, end));
+            buffer.delete(0, end + 2);
+        }
+        return events;
+    }
+
+    private void received(String event) {
+        var marker = event.indexOf(SENT_AT_MARKER);
+        if (marker < 0) {
+            return;
+        }
+        var from = marker + SENT_AT_MARKER.length();
+        var sentAt = Long.parseLong(event, from, event.indexOf('"', from), 10);
+        // /stream/all may replay events of earlier runs against the same database
+        if (sentAt - runStart < 0) {
+            return;
+        }
+        metrics.received.increment();
+        metrics.recordDelivery(System.nanoTime() - sentAt);
+    }
+
+    private static String transaction(long sentAt) {
+        var random = ThreadLocalRandom.current();
+        return """
+                {"id":"%s","status":"COMPLETED","userId":"user-%d","amount":%d.%02d,"currency":"USD","description":"load:%d"}"""
+                .formatted(UUID.randomUUID(), random.nextInt(USERS), random.nextInt(10_000), random.nextInt(100), sentAt);
+    }
+}
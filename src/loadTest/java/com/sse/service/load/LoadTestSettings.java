@@ -0,0 +1,38 @@
+package com.sse.service.load;
+
+import java.time.Duration;
+
+/**
+ * Load profile, read from {@code load.*} system properties so that runs are reproducible from
+ * the command line, e.g. {@code ./gradlew loadTest -Pload.rate=2000 -Pload.newConnections=500}.
+ *
+ * @param baseUrl        target instance; when blank an instance is started against Testcontainers Postgres
+ * @param rate           POSTs per second offered to {@code /api/transactions}
+ * @param duration       how long the POST load runs
+ * @param newConnections concurrent SSE connections on {@code /stream/new}
+ * @param allConnections concurrent SSE connections on {@code /stream/all}
+ * @param maxInFlight    upper bound on outstanding POSTs; the excess is counted as shed, not queued
+ * @param drain          how long subscribers keep reading after the last POST
+ */
+record LoadTestSettings(String baseUrl, int rate, Duration duration, int newConnections, int allConnections,
+                        int maxInFlight, Duration drain) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("load.baseUrl", ""),
+                Integer.getInteger("load.rate", 1_000),
+                Duration.parse(System.getProperty("load.duration", "PT60S")),
+                Integer.getInteger("load.newConnections", 100),
+                Integer.getInteger("load.allConnections", 10),
+                Integer.getInteger("load.maxInFlight", 512),
+                Duration.parse(System.getProperty("load.drain", "PT5S")));
+    }
+
+    boolean embedded() {
+        return baseUrl.isBlank();
+    }
+
+    int connections() {
+        return newConnections + allConnections;
+    }
+}
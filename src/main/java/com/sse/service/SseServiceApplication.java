@@ -2,9 +2,11 @@ package com.sse.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import reactor.core.publisher.Hooks;
 
 @SpringBootApplication(scanBasePackages = {"com.sse.service"})
+@ConfigurationPropertiesScan(basePackages = {"com.sse.service.config.properties"})
 public class SseServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,12 @@
+package com.sse.service.api.request;
+
+import com.sse.service.service.aggregate.AggregateDimension;
+import lombok.Data;
+
+@Data
+public class AggregateStreamRequest {
+
+    private AggregateDimension dimension;
+
+    private String key;
+}
@@ -0,0 +1,20 @@
+package com.sse.service.api.request;
+
+import com.sse.service.service.history.TransactionCursor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class TransactionHistoryRequest {
+
+    private String userId;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private TransactionCursor cursor;
+
+    private Integer limit;
+}
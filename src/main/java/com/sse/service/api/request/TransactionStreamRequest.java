@@ -0,0 +1,32 @@
+package com.sse.service.api.request;
+
+import com.sse.service.service.fanout.SlowConsumerPolicy;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Data
+public class TransactionStreamRequest {
+
+    private Long lastEventId;
+
+    private String userId;
+
+    private String currency;
+
+    private String status;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+
+    private SlowConsumerPolicy slowConsumerPolicy;
+
+    /**
+     * Window of batch frames, or {@code null} to send one frame per transaction.
+     */
+    private Duration batchWindow;
+
+    private Integer maxBatchSize;
+}
@@ -1,6 +1,7 @@
 package com.sse.service.api.request;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -9,7 +10,7 @@ import java.util.UUID;
 @Data
 public class TransactionsRequest {
 
-    @NotBlank
+    @NotNull
     private UUID id;
 
     @NotBlank
@@ -18,7 +19,7 @@ public class TransactionsRequest {
     @NotBlank
     private String userId;
 
-    @NotBlank
+    @NotNull
     private BigDecimal amount;
 
     @NotBlank
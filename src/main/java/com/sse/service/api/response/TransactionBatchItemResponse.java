@@ -0,0 +1,46 @@
+package com.sse.service.api.response;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItemResponse {
+
+    public static final String SAVED = "SAVED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String FAILED = "FAILED";
+    public static final String REJECTED = "REJECTED";
+
+    private UUID transactionId;
+
+    private Long id;
+
+    private String status;
+
+    private String message;
+
+    public static TransactionBatchItemResponse saved(TransactionsEntity entity) {
+        return new TransactionBatchItemResponse(entity.getTransactionId(), entity.getId(), SAVED, null);
+    }
+
+    public static TransactionBatchItemResponse duplicate(UUID transactionId) {
+        return new TransactionBatchItemResponse(transactionId, null, DUPLICATE, null);
+    }
+
+    public static TransactionBatchItemResponse failed(UUID transactionId, String message) {
+        return new TransactionBatchItemResponse(transactionId, null, FAILED, message);
+    }
+
+    /**
+     * Not saved because the user or the instance was over its ingest limit; it may be retried.
+     */
+    public static TransactionBatchItemResponse rejected(UUID transactionId, String message) {
+        return new TransactionBatchItemResponse(transactionId, null, REJECTED, message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sse.service.api.response;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageResponse {
+
+    private List<TransactionsEntity> items;
+
+    /**
+     * Pass as {@code cursor} to fetch the next page; {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,32 @@
+package com.sse.service.config;
+
+import com.sse.service.config.properties.RSocketTransportProperties;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.WebsocketRouteTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+/**
+ * RSocket routes of the transaction API. Spring Boot only attaches RSocket to the HTTP server
+ * when it does not run its own TCP server, so the WebSocket transport is mounted here, on the
+ * same responder as the TCP one.
+ */
+@Configuration
+public class RSocketConfiguration {
+
+    public static final String TRANSACTIONS = "transactions";
+    public static final String TRANSACTIONS_FIRE_AND_FORGET = "transactions.fire-and-forget";
+    public static final String STREAM_ALL_TRANSACTIONS = "transactions.stream.all";
+    public static final String STREAM_NEW_TRANSACTIONS = "transactions.stream.new";
+
+    @Bean
+    @ConditionalOnExpression("!'${sse.rsocket.websocket-path:}'.isEmpty()")
+    public NettyRouteProvider rSocketWebSocketRoute(RSocketMessageHandler messageHandler,
+                                                    RSocketTransportProperties properties) {
+        var connectionAcceptor = RSocketServer.create(messageHandler.responder()).asConnectionAcceptor();
+        return routes -> routes.ws(properties.getWebsocketPath(), WebsocketRouteTransport.newHandler(connectionAcceptor));
+    }
+}
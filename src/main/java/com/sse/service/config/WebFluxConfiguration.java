@@ -17,16 +17,23 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
 public class WebFluxConfiguration implements WebFluxConfigurer {
 
     public static final String TRANSACTIONS = "/api/transactions";
+    public static final String TRANSACTION = "/api/transactions/{transactionId}";
+    public static final String TRANSACTIONS_BATCH = "/api/transactions/batch";
     public static final String STREAM_ALL_TRANSACTIONS = "/api/transactions/stream/all";
     public static final String STREAM_NEW_TRANSACTIONS = "/api/transactions/stream/new";
+    public static final String STREAM_AGGREGATES = "/api/aggregates/stream";
 
     @Bean
     public RouterFunction<ServerResponse> singleStepPaymentRouterFunction(
             TransactionHandler handler) {
         return route()
                 .POST(TRANSACTIONS, handler::transactions)
+                .GET(TRANSACTIONS, handler::transactionsHistory)
+                .POST(TRANSACTIONS_BATCH, handler::transactionsBatch)
                 .GET(STREAM_ALL_TRANSACTIONS, handler::streamAllTransactions)
                 .GET(STREAM_NEW_TRANSACTIONS, handler::streamNewTransactions)
+                .GET(STREAM_AGGREGATES, handler::streamAggregates)
+                .GET(TRANSACTION, handler::transaction)
                 .build();
     }
 }
@@ -0,0 +1,22 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sse.aggregates")
+public class AggregateProperties {
+
+    /**
+     * Each aggregate stream emits a changed key at most once per interval, with its latest value.
+     */
+    private Duration emitInterval = Duration.ofMillis(250);
+
+    /**
+     * Seeds the aggregates from every stored transaction at startup; when disabled they only
+     * cover transactions published since.
+     */
+    private boolean rebuildOnStartup = true;
+}
@@ -0,0 +1,34 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sse.cluster")
+public class ClusterProperties {
+
+    /**
+     * Fan out saved transactions to every instance through Postgres LISTEN/NOTIFY instead of
+     * publishing only to this instance's sinks.
+     */
+    private boolean enabled = false;
+
+    private String channel = "transactions";
+
+    /**
+     * Transactions whose JSON is larger than this are sent as a bare id and fetched by the
+     * listeners. Postgres rejects NOTIFY payloads of 8000 bytes or more.
+     */
+    private int maxInlinePayloadBytes = 7_000;
+
+    /**
+     * Notifications are grouped by count/time so id-only ones can be fetched in one query.
+     */
+    private int fetchBatchSize = 500;
+
+    private Duration fetchWindow = Duration.ofMillis(10);
+
+    private Duration reconnectBackoff = Duration.ofSeconds(1);
+}
@@ -0,0 +1,65 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sse.event-log")
+public class EventLogProperties {
+
+    /**
+     * Keeps published frames in a local segment log and replays from it instead of Postgres. Off
+     * by default, since every instance needs a {@link #directory} of its own.
+     */
+    private boolean enabled;
+
+    /**
+     * Directory of the segment files. A log that does not match the database is discarded and
+     * rebuilt from it at startup. It is locked while in use, so instances on one host each need
+     * their own.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "sse-event-log");
+
+    /**
+     * Size of one memory-mapped segment; a frame that does not fit rolls to a new one. The next
+     * segment is mapped ahead on the maintenance thread, but a writer that fills the active one
+     * before that finishes maps it inline, stalling publishing for as long as creating a file of
+     * this size takes.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Distance between sparse index entries; replay scans at most this much to find its start.
+     */
+    private DataSize indexInterval = DataSize.ofKilobytes(4);
+
+    /**
+     * Oldest segments are deleted once all segments together exceed this.
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(2);
+
+    /**
+     * Segments whose last frame is older than this are deleted.
+     */
+    private Duration maxAge = Duration.ofDays(1);
+
+    /**
+     * How often age and size retention run besides after every segment roll, so that an idle
+     * log still ages out.
+     */
+    private Duration retentionInterval = Duration.ofMinutes(1);
+
+    /**
+     * Largest run of consecutive frames handed to a connection as one buffer.
+     */
+    private DataSize maxChunkSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Rows read per page while rebuilding the log from Postgres.
+     */
+    private int rebuildPageSize = 1000;
+}
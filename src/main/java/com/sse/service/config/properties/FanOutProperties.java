@@ -0,0 +1,31 @@
+package com.sse.service.config.properties;
+
+import com.sse.service.service.fanout.SlowConsumerPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "sse.fanout")
+public class FanOutProperties {
+
+    /**
+     * Encoded bytes queued per live subscriber before its slow-consumer policy kicks in.
+     */
+    private DataSize maxBufferedBytes = DataSize.ofKilobytes(512);
+
+    /**
+     * Default policy of /stream/new; clients may override it with {@code ?slowConsumerPolicy=}.
+     */
+    private SlowConsumerPolicy newStreamPolicy = SlowConsumerPolicy.DROP_OLDEST;
+
+    /**
+     * Default policy of /stream/all, whose clients expect the complete history.
+     */
+    private SlowConsumerPolicy allStreamPolicy = SlowConsumerPolicy.DISCONNECT;
+
+    /**
+     * Fan-out threads, each owning a fixed share of the subscribers; 0 means one per core.
+     */
+    private int shards = 0;
+}
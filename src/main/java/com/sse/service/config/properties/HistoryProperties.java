@@ -0,0 +1,36 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sse.history")
+public class HistoryProperties {
+
+    /**
+     * Page size of {@code GET /api/transactions} when the client does not pass {@code limit}.
+     */
+    private int defaultPageSize = 100;
+
+    /**
+     * Upper bound on {@code limit} for JSON pages; NDJSON exports are streamed and not capped.
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * Monthly partitions created ahead of the current month.
+     */
+    private int partitionsAhead = 3;
+
+    /**
+     * Whole months of history kept; older partitions are dropped. Zero keeps everything.
+     */
+    private int retentionMonths = 0;
+
+    /**
+     * How often partitions are created and expired.
+     */
+    private Duration maintenanceInterval = Duration.ofHours(1);
+}
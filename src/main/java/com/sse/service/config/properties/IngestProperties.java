@@ -0,0 +1,118 @@
+package com.sse.service.config.properties;
+
+import com.sse.service.persistent.repository.TransactionBatchRepository;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "sse.ingest")
+public class IngestProperties {
+
+    /**
+     * Rows written per multi-row INSERT on the batch endpoint.
+     */
+    @Min(1)
+    @Max(TransactionBatchRepository.MAX_ROWS)
+    private int batchSize = 500;
+
+    /**
+     * Longest a partially filled chunk waits for more rows before it is flushed.
+     */
+    private Duration batchWindow = Duration.ofMillis(50);
+
+    /**
+     * Largest body accepted by the single-transaction endpoint; larger ones are rejected with 413.
+     */
+    private DataSize maxRequestSize = DataSize.ofKilobytes(16);
+
+    @Valid
+    private GroupCommit groupCommit = new GroupCommit();
+
+    private Dedup dedup = new Dedup();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class GroupCommit {
+
+        /**
+         * Coalesce concurrent single-transaction saves into multi-row inserts.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Longest a save waits for other saves to join its batch.
+         */
+        private Duration window = Duration.ofMillis(2);
+
+        @Min(1)
+        @Max(TransactionBatchRepository.MAX_ROWS)
+        private int maxBatchSize = 500;
+
+        /**
+         * Batches written concurrently; each one holds a pool connection while in flight.
+         */
+        private int maxInFlightBatches = 4;
+
+        /**
+         * Saves waiting for or inside a batch; further saves are rejected with 429.
+         */
+        private int maxQueuedWrites = 10_000;
+    }
+
+    @Data
+    public static class Dedup {
+
+        /**
+         * Recently seen transaction ids remembered in memory; older ones are caught by the
+         * unique index instead.
+         */
+        private long maxSize = 1_000_000;
+
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Admission control on single-transaction ingest; the initial limits, which the
+     * {@code ingestlimits} actuator endpoint can replace at runtime.
+     */
+    @Data
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        /**
+         * Sustained saves per second allowed for one {@code userId}.
+         */
+        private double permitsPerSecond = 50;
+
+        /**
+         * Saves a {@code userId} may make back to back before it is held to the sustained rate.
+         */
+        private int burst = 100;
+
+        /**
+         * Saves in flight across all users; each one may hold a pool connection.
+         */
+        private int maxInFlightSaves = 256;
+
+        /**
+         * Retry-After sent when the in-flight limit is reached.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * Users whose buckets are remembered; the least recently active are forgotten and start
+         * again with a full burst.
+         */
+        private int maxTrackedUsers = 100_000;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sse.lookup")
+public class LookupProperties {
+
+    /**
+     * Transactions kept in memory for {@code GET /api/transactions/{transactionId}}.
+     */
+    private long maxSize = 100_000;
+
+    /**
+     * How long a transaction stays cached after it was saved or first looked up.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
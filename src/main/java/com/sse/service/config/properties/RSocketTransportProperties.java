@@ -0,0 +1,18 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * RSocket over TCP is served by Spring Boot on {@code spring.rsocket.server.port}; these add the
+ * WebSocket transport next to it.
+ */
+@Data
+@ConfigurationProperties(prefix = "sse.rsocket")
+public class RSocketTransportProperties {
+
+    /**
+     * Path on the HTTP port that accepts RSocket over WebSocket, or empty to disable it.
+     */
+    private String websocketPath = "/rsocket";
+}
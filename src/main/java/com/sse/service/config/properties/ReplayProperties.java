@@ -0,0 +1,26 @@
+package com.sse.service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sse.replay")
+public class ReplayProperties {
+
+    /**
+     * Maximum number of recent events kept in the in-memory ring.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Events older than this are evicted from the ring and served from Postgres instead.
+     */
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    /**
+     * Rows fetched per keyset page while catching up from Postgres.
+     */
+    private int pageSize = 500;
+}
@@ -0,0 +1,68 @@
+package com.sse.service.config.properties;
+
+import com.sse.service.service.stream.StreamEncoding;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "sse.stream")
+public class StreamProperties {
+
+    /**
+     * Interval of SSE comment heartbeats; keeps idle connections alive through proxies and
+     * surfaces dead peers on write. The first heartbeat is sent right away to commit the response.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * A connection whose writer has had no demand for this long is closed. Checked on every
+     * heartbeat, so the effective timeout is rounded up to the heartbeat interval.
+     */
+    private Duration writeStallTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Concurrent stream connections per instance; further connections get 503.
+     */
+    private int maxConnections = 100_000;
+
+    /**
+     * Concurrent stream connections per {@code userId} filter; further connections get 429.
+     */
+    private int maxConnectionsPerUser = 16;
+
+    /**
+     * Sent as {@code Retry-After} with rejected connections.
+     */
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    /**
+     * Transactions per batch frame when a client asks for {@code ?batch=} without {@code maxBatch}.
+     */
+    private int defaultBatchSize = 500;
+
+    /**
+     * Upper bound on {@code maxBatch}.
+     */
+    private int maxBatchSize = 5000;
+
+    /**
+     * Lower bound on {@code batch}; shorter windows would only add timer overhead.
+     */
+    private Duration minBatchWindow = Duration.ofMillis(10);
+
+    /**
+     * Encodings whose streams are compressed when the client sends {@code Accept-Encoding}.
+     * Every compressed connection holds its own deflater (a few hundred KB), so this is meant
+     * for the few internal consumers, not browsers on SSE.
+     */
+    private Set<StreamEncoding> compressedEncodings = EnumSet.of(StreamEncoding.NDJSON, StreamEncoding.SMILE);
+
+    /**
+     * Deflate level of compressed streams, 1-9, or -1 for the zlib default.
+     */
+    private int compressionLevel = -1;
+}
@@ -1,11 +1,16 @@
 package com.sse.service.handler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Consumer;
+
 @Slf4j
 public abstract class BaseHandler {
 
@@ -13,4 +18,22 @@ public abstract class BaseHandler {
         return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(body);
     }
+
+    /**
+     * Writes already encoded frames as they are, flushing after each one.
+     *
+     * @param onEnd run once the write ends, however it ends, including when the frames were
+     *              never subscribed
+     */
+    protected Mono<ServerResponse> toStreamResponse(MediaType contentType, Flux<DataBuffer> frames, Runnable onEnd) {
+        return toStreamResponse(contentType, headers -> {
+        }, frames, onEnd);
+    }
+
+    protected Mono<ServerResponse> toStreamResponse(MediaType contentType, Consumer<HttpHeaders> headers,
+                                                    Flux<DataBuffer> frames, Runnable onEnd) {
+        return ServerResponse.ok().contentType(contentType).headers(headers)
+                .body((response, context) -> response.writeAndFlushWith(frames.map(Mono::just))
+                        .doFinally(signal -> onEnd.run()));
+    }
 }
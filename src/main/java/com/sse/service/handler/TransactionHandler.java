@@ -1,11 +1,40 @@
 package com.sse.service.handler;
 
 
+import com.sse.service.api.request.AggregateStreamRequest;
+import com.sse.service.api.request.TransactionHistoryRequest;
+import com.sse.service.api.request.TransactionStreamRequest;
 import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionBatchItemResponse;
+import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.config.properties.StreamProperties;
 import com.sse.service.persistent.postgres.entity.TransactionsEntity;
 import com.sse.service.service.TransactionService;
+import com.sse.service.service.aggregate.AggregateDimension;
+import com.sse.service.service.aggregate.AggregateFrameEncoder;
+import com.sse.service.service.eventlog.EventLog;
+import com.sse.service.service.fanout.SlowConsumerPolicy;
+import com.sse.service.service.fanout.SubscriptionFilter;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import com.sse.service.service.history.TransactionCursor;
+import com.sse.service.service.ingest.IngestAdmission;
+import com.sse.service.service.ingest.IngestRejectedException;
+import com.sse.service.service.ingest.InvalidTransactionException;
+import com.sse.service.service.ingest.TransactionRequestDecoder;
+import com.sse.service.service.stream.FrameCompressor;
+import com.sse.service.service.stream.StreamAdmission;
+import com.sse.service.service.stream.StreamCompression;
+import com.sse.service.service.stream.StreamEncoding;
+import com.sse.service.service.stream.StreamKeepAlive;
+import com.sse.service.service.stream.StreamRejectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -15,37 +44,328 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 @Component
 @Slf4j
 @Validated
 @RequiredArgsConstructor
 public class TransactionHandler extends BaseHandler {
 
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final TransactionService transactionService;
+    private final StreamAdmission streamAdmission;
+    private final IngestAdmission ingestAdmission;
+    private final TransactionRequestDecoder requestDecoder;
+    private final StreamKeepAlive streamKeepAlive;
+    private final AggregateFrameEncoder aggregateFrameEncoder;
+    private final TransactionFrameEncoder frameEncoder;
+    private final StreamProperties streamProperties;
+    private final Optional<EventLog> eventLog;
 
+    /**
+     * Invalid bodies are answered with 400 and oversized ones with 413, before admission and
+     * without touching the database.
+     */
     public Mono<ServerResponse> transactions(ServerRequest request) {
-        log.info("Transaction request received");
-        return request.bodyToMono(TransactionsRequest.class)
-                .doOnNext(req -> log.info("Parsed request: {}", req))
-                .flatMap(transactionService::transactions)
-                .doOnSuccess(response -> log.info("Response sent: {}", response))
-                .flatMap(it -> toServerResponse(HttpStatus.OK, it))
+        log.debug("Transaction request received");
+        return requestDecoder.decode(request.bodyToFlux(DataBuffer.class))
+                .doOnNext(transaction -> log.debug("Parsed transaction: {}", transaction.getTransactionId()))
+                .flatMap(this::toAdmittedSave)
+                .onErrorResume(InvalidTransactionException.class,
+                        e -> toServerResponse(HttpStatus.BAD_REQUEST, new TransactionsResponse(e.getMessage())))
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> toServerResponse(HttpStatus.PAYLOAD_TOO_LARGE, new TransactionsResponse("Request body too large")))
                 .doOnError(e -> log.error("Error processing transaction request", e));
     }
 
-    public Mono<ServerResponse> streamAllTransactions(ServerRequest request) {
-        Flux<TransactionsEntity> transactionStream = transactionService.streamAllTransactions();
+    /**
+     * Over-limit saves are answered with 429 straight away, before a connection is borrowed.
+     */
+    private Mono<ServerResponse> toAdmittedSave(TransactionsEntity transaction) {
+        IngestAdmission.Permit permit;
+        try {
+            permit = ingestAdmission.acquire(transaction.getUserId());
+        } catch (IngestRejectedException e) {
+            log.debug("Transaction rejected: {}", e.getMessage());
+            return toRejectedResponse(HttpStatus.TOO_MANY_REQUESTS, e.getRetryAfter(), e.getMessage());
+        }
+
+        return transactionService.transactions(transaction)
+                .doFinally(signal -> permit.release())
+                .doOnSuccess(response -> log.debug("Response sent: {}", response))
+                .flatMap(it -> toServerResponse(HttpStatus.OK, it))
+                .onErrorResume(IngestRejectedException.class,
+                        e -> toRejectedResponse(HttpStatus.TOO_MANY_REQUESTS, e.getRetryAfter(), e.getMessage()));
+    }
+
+    public Mono<ServerResponse> transactionsBatch(ServerRequest request) {
+        var contentType = request.headers().contentType()
+                .filter(MediaType.APPLICATION_NDJSON::isCompatibleWith)
+                .orElse(MediaType.APPLICATION_JSON);
+        var results = transactionService.transactionsBatch(request.bodyToFlux(TransactionsRequest.class));
 
         return ServerResponse.ok()
-                .contentType(MediaType.TEXT_EVENT_STREAM)
-                .body(transactionStream, TransactionsEntity.class);
+                .contentType(contentType)
+                .body(results, TransactionBatchItemResponse.class);
+    }
+
+    public Mono<ServerResponse> transaction(ServerRequest request) {
+        UUID transactionId;
+        try {
+            transactionId = UUID.fromString(request.pathVariable("transactionId"));
+        } catch (IllegalArgumentException e) {
+            return toServerResponse(HttpStatus.BAD_REQUEST, new TransactionsResponse("Invalid transactionId"));
+        }
+
+        return transactionService.findTransaction(transactionId)
+                .flatMap(transaction -> toServerResponse(HttpStatus.OK, transaction))
+                .switchIfEmpty(Mono.defer(() ->
+                        toServerResponse(HttpStatus.NOT_FOUND, new TransactionsResponse("Transaction not found"))));
+    }
+
+    /**
+     * One page as JSON by default; with {@code Accept: application/x-ndjson} every matching row
+     * from the cursor on is streamed instead, for exports.
+     */
+    public Mono<ServerResponse> transactionsHistory(ServerRequest request) {
+        TransactionHistoryRequest historyRequest;
+        try {
+            historyRequest = toHistoryRequest(request);
+        } catch (IllegalArgumentException e) {
+            return toServerResponse(HttpStatus.BAD_REQUEST, new TransactionsResponse(e.getMessage()));
+        }
+
+        var ndjson = request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        if (ndjson) {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(transactionService.exportTransactions(historyRequest), TransactionsEntity.class);
+        }
+        return transactionService.transactionsPage(historyRequest)
+                .flatMap(page -> toServerResponse(HttpStatus.OK, page));
+    }
+
+    public Mono<ServerResponse> streamAggregates(ServerRequest request) {
+        var aggregateRequest = new AggregateStreamRequest();
+        try {
+            aggregateRequest.setDimension(parse(request.queryParam("dimension").orElse(null),
+                    AggregateDimension::parse, "Invalid dimension"));
+            aggregateRequest.setKey(request.queryParam("key").filter(key -> !key.isBlank()).orElse(null));
+            if (aggregateRequest.getKey() != null && aggregateRequest.getDimension() == null) {
+                throw new IllegalArgumentException("key requires a dimension");
+            }
+        } catch (IllegalArgumentException e) {
+            return toServerResponse(HttpStatus.BAD_REQUEST, new TransactionsResponse(e.getMessage()));
+        }
+
+        return toAdmittedStream(null, StreamEncoding.SSE, null, () -> transactionService.streamAggregates(aggregateRequest)
+                .map(aggregate -> DefaultDataBufferFactory.sharedInstance.wrap(aggregateFrameEncoder.encode(aggregate))));
+    }
+
+    public Mono<ServerResponse> streamAllTransactions(ServerRequest request) {
+        return toEventStream(request, transactionService::streamAllTransactions);
     }
 
     public Mono<ServerResponse> streamNewTransactions(ServerRequest request) {
-        Flux<TransactionsEntity> transactionStream = transactionService.streamNewTransactions();
+        return toEventStream(request, transactionService::streamNewTransactions);
+    }
 
-        return ServerResponse.ok()
-                .contentType(MediaType.TEXT_EVENT_STREAM)
-                .body(transactionStream, TransactionsEntity.class);
+    private Mono<ServerResponse> toEventStream(ServerRequest request,
+                                               Function<TransactionStreamRequest, Flux<TransactionFrame>> stream) {
+        TransactionStreamRequest streamRequest;
+        try {
+            streamRequest = toStreamRequest(request);
+        } catch (IllegalArgumentException e) {
+            return toServerResponse(HttpStatus.BAD_REQUEST, new TransactionsResponse(e.getMessage()));
+        }
+
+        var encoding = StreamEncoding.negotiate(request.headers().accept());
+        var compression = streamProperties.getCompressedEncodings().contains(encoding)
+                ? StreamCompression.negotiate(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING)).orElse(null)
+                : null;
+
+        // frames are rendered once per encoding and only wrapped here, never copied or re-encoded
+        return toAdmittedStream(streamRequest.getUserId(), encoding, compression, () -> {
+            if (encoding == StreamEncoding.SSE && streamRequest.getBatchWindow() == null) {
+                var fromLog = replayFromLog(streamRequest, stream);
+                if (fromLog != null) {
+                    return fromLog;
+                }
+            }
+            var frames = stream.apply(streamRequest);
+            if (streamRequest.getBatchWindow() == null) {
+                return frames.map(frame -> DefaultDataBufferFactory.sharedInstance.wrap(frameEncoder.render(frame, encoding)));
+            }
+            return frames.bufferTimeout(streamRequest.getMaxBatchSize(), streamRequest.getBatchWindow(), true)
+                    .map(batch -> DefaultDataBufferFactory.sharedInstance.wrap(frameEncoder.renderBatch(batch, encoding)));
+        });
+    }
+
+    /**
+     * Unfiltered SSE catch-up is written straight from the event log's mapped segments, in runs of
+     * frames rather than one buffer per frame; the stream then resumes after the last id written.
+     *
+     * @return {@code null} if the log cannot serve this request
+     */
+    private Flux<DataBuffer> replayFromLog(TransactionStreamRequest streamRequest,
+                                           Function<TransactionStreamRequest, Flux<TransactionFrame>> stream) {
+        var lastEventId = streamRequest.getLastEventId();
+        if (eventLog.isEmpty() || lastEventId == null || lastEventId < eventLog.get().coveredAfterId()
+                || !SubscriptionFilter.ALL.equals(SubscriptionFilter.from(streamRequest))) {
+            return null;
+        }
+        var resumeAfter = new AtomicLong(lastEventId);
+        return Flux.concat(
+                eventLog.get().chunks(lastEventId, resumeAfter).map(DefaultDataBufferFactory.sharedInstance::wrap),
+                Flux.defer(() -> {
+                    streamRequest.setLastEventId(resumeAfter.get());
+                    return stream.apply(streamRequest).map(frame -> DefaultDataBufferFactory.sharedInstance.wrap(frame.sse()));
+                }));
+    }
+
+    /**
+     * Admits the connection and writes its frames with heartbeats until it ends, or rejects it
+     * with {@code Retry-After} when the instance or the user is at its connection cap. The permit
+     * is taken before the response is built, so every rejection is answered with its status, and
+     * released once the response write ends, whether or not the body was ever subscribed.
+     *
+     * @param compression content coding of the response, or {@code null} to send it as is
+     */
+    private Mono<ServerResponse> toAdmittedStream(String userId, StreamEncoding encoding, StreamCompression compression,
+                                                  Supplier<Flux<? extends DataBuffer>> frames) {
+        StreamAdmission.Permit permit;
+        try {
+            permit = streamAdmission.acquire(userId);
+        } catch (StreamRejectedException e) {
+            log.debug("Stream connection rejected: {}", e.getMessage());
+            return toRejectedResponse(e.getStatus(), e.getRetryAfter(), e.getMessage());
+        }
+
+        var body = Flux.defer(() -> streamKeepAlive.apply(Flux.from(frames.get()), encoding));
+        if (compression == null) {
+            return toStreamResponse(encoding.mediaType(), body, permit::release);
+        }
+        return toStreamResponse(encoding.mediaType(),
+                headers -> headers.set(HttpHeaders.CONTENT_ENCODING, compression.coding()),
+                compress(body, compression), permit::release);
+    }
+
+    /**
+     * Retry-After is rounded up to whole seconds, so a sub-second wait is never sent as 0.
+     */
+    private static Mono<ServerResponse> toRejectedResponse(HttpStatus status, Duration retryAfter, String message) {
+        var seconds = Math.max(1, retryAfter.plusNanos(999_999_999).toSeconds());
+        return ServerResponse.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TransactionsResponse(message));
+    }
+
+    /**
+     * Compresses each frame or batch with a sync flush, so it can be decompressed on arrival.
+     */
+    private Flux<DataBuffer> compress(Flux<DataBuffer> frames, StreamCompression compression) {
+        return Flux.using(
+                () -> new FrameCompressor(compression, streamProperties.getCompressionLevel()),
+                compressor -> frames
+                        .map(frame -> {
+                            var bytes = new byte[frame.readableByteCount()];
+                            frame.read(bytes);
+                            return DefaultDataBufferFactory.sharedInstance.wrap(compressor.compress(bytes));
+                        })
+                        .concatWith(Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(compressor.finish()))),
+                FrameCompressor::release);
+    }
+
+    private TransactionStreamRequest toStreamRequest(ServerRequest request) {
+        var streamRequest = new TransactionStreamRequest();
+        streamRequest.setLastEventId(parse(request.headers().firstHeader(LAST_EVENT_ID_HEADER), Long::valueOf,
+                "Invalid Last-Event-ID header"));
+        streamRequest.setUserId(request.queryParam("userId").orElse(null));
+        streamRequest.setCurrency(request.queryParam("currency").orElse(null));
+        streamRequest.setStatus(request.queryParam("status").orElse(null));
+        streamRequest.setMinAmount(parse(request.queryParam("minAmount").orElse(null), BigDecimal::new,
+                "Invalid minAmount"));
+        streamRequest.setMaxAmount(parse(request.queryParam("maxAmount").orElse(null), BigDecimal::new,
+                "Invalid maxAmount"));
+        streamRequest.setSlowConsumerPolicy(parse(request.queryParam("slowConsumerPolicy").orElse(null),
+                SlowConsumerPolicy::parse, "Invalid slowConsumerPolicy"));
+        streamRequest.setBatchWindow(parse(request.queryParam("batch").orElse(null), DurationStyle::detectAndParse,
+                "Invalid batch"));
+        streamRequest.setMaxBatchSize(parse(request.queryParam("maxBatch").orElse(null), Integer::valueOf,
+                "Invalid maxBatch"));
+        if (streamRequest.getBatchWindow() != null) {
+            if (streamRequest.getBatchWindow().compareTo(streamProperties.getMinBatchWindow()) < 0) {
+                throw new IllegalArgumentException("batch must be at least " + streamProperties.getMinBatchWindow());
+            }
+            if (streamRequest.getMaxBatchSize() == null) {
+                streamRequest.setMaxBatchSize(streamProperties.getDefaultBatchSize());
+            }
+        } else if (streamRequest.getMaxBatchSize() != null) {
+            throw new IllegalArgumentException("maxBatch requires batch");
+        }
+        if (streamRequest.getMaxBatchSize() != null
+                && (streamRequest.getMaxBatchSize() < 1 || streamRequest.getMaxBatchSize() > streamProperties.getMaxBatchSize())) {
+            throw new IllegalArgumentException("maxBatch must be between 1 and " + streamProperties.getMaxBatchSize());
+        }
+        return streamRequest;
+    }
+
+    private TransactionHistoryRequest toHistoryRequest(ServerRequest request) {
+        var historyRequest = new TransactionHistoryRequest();
+        historyRequest.setUserId(request.queryParam("userId").filter(userId -> !userId.isBlank())
+                .orElseThrow(() -> new IllegalArgumentException("userId is required")));
+        historyRequest.setFrom(parse(request.queryParam("from").orElse(null), TransactionHandler::parseTimestamp,
+                "Invalid from"));
+        historyRequest.setTo(parse(request.queryParam("to").orElse(null), TransactionHandler::parseTimestamp,
+                "Invalid to"));
+        historyRequest.setCursor(parse(request.queryParam("cursor").orElse(null), TransactionCursor::decode,
+                "Invalid cursor"));
+        historyRequest.setLimit(parse(request.queryParam("limit").orElse(null), Integer::valueOf, "Invalid limit"));
+        if (historyRequest.getLimit() != null && historyRequest.getLimit() < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return historyRequest;
+    }
+
+    /**
+     * Accepts ISO-8601 timestamps with or without offset; {@code created_at} is stored in the
+     * server's local time, so offsets are converted to it.
+     */
+    private static LocalDateTime parseTimestamp(String value) {
+        TemporalAccessor parsed;
+        try {
+            parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(value, OffsetDateTime::from, LocalDateTime::from);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return parsed instanceof OffsetDateTime offsetDateTime
+                ? offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()
+                : (LocalDateTime) parsed;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser, String error) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(error, e);
+        }
     }
 }
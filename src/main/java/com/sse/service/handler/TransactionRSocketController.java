@@ -0,0 +1,104 @@
+package com.sse.service.handler;
+
+import com.sse.service.api.request.TransactionStreamRequest;
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.config.RSocketConfiguration;
+import com.sse.service.mapper.TransactionMapper;
+import com.sse.service.service.TransactionService;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import com.sse.service.service.ingest.IngestAdmission;
+import com.sse.service.service.ingest.TransactionValidator;
+import com.sse.service.service.stream.StreamAdmission;
+import com.sse.service.service.stream.StreamEncoding;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * The transaction API over RSocket. Streams are served from the same subscriptions as the SSE
+ * routes, and the client's request-n is what drains the subscription queue: live events it has
+ * not asked for wait there under the stream's slow consumer policy and byte budget. A replaying
+ * stream reads its catch-up from Postgres a page at a time, so up to one page is fetched ahead of
+ * demand before it reaches the live events.
+ *
+ * <p>Stream payloads are the pre-rendered JSON of each transaction, so clients must use
+ * {@code application/json} as data MIME type.
+ */
+@Controller
+@RequiredArgsConstructor
+public class TransactionRSocketController {
+
+    private final TransactionService transactionService;
+    private final TransactionFrameEncoder frameEncoder;
+    private final StreamAdmission streamAdmission;
+    private final IngestAdmission ingestAdmission;
+    private final TransactionMapper transactionMapper;
+    private final TransactionValidator transactionValidator;
+
+    @MessageMapping(RSocketConfiguration.TRANSACTIONS)
+    public Mono<TransactionsResponse> transactions(TransactionsRequest request) {
+        return toAdmittedSave(request);
+    }
+
+    @MessageMapping(RSocketConfiguration.TRANSACTIONS_FIRE_AND_FORGET)
+    public Mono<Void> fireAndForget(TransactionsRequest request) {
+        return toAdmittedSave(request).then();
+    }
+
+    @MessageMapping(RSocketConfiguration.STREAM_ALL_TRANSACTIONS)
+    public Flux<DataBuffer> streamAllTransactions(@Payload(required = false) TransactionStreamRequest request) {
+        return toStream(request, transactionService::streamAllTransactions);
+    }
+
+    @MessageMapping(RSocketConfiguration.STREAM_NEW_TRANSACTIONS)
+    public Flux<DataBuffer> streamNewTransactions(@Payload(required = false) TransactionStreamRequest request) {
+        return toStream(request, transactionService::streamNewTransactions);
+    }
+
+    /**
+     * Saves are validated and subject to the same ingest limits as HTTP; an invalid or rejected
+     * save errors with the reason.
+     */
+    private Mono<TransactionsResponse> toAdmittedSave(TransactionsRequest request) {
+        return Mono.defer(() -> {
+            var transaction = transactionMapper.toEntity(request);
+            transactionValidator.validate(transaction);
+            var permit = ingestAdmission.acquire(transaction.getUserId());
+            return transactionService.transactions(transaction)
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    /**
+     * Streams count against the same connection caps as SSE; a rejected stream errors with the
+     * reason instead of a status code.
+     */
+    private Flux<DataBuffer> toStream(TransactionStreamRequest request,
+                                      Function<TransactionStreamRequest, Flux<TransactionFrame>> stream) {
+        var streamRequest = request == null ? new TransactionStreamRequest() : request;
+        // batch frames only make sense without flow control
+        streamRequest.setBatchWindow(null);
+        streamRequest.setMaxBatchSize(null);
+        return Flux.using(() -> streamAdmission.acquire(streamRequest.getUserId()),
+                permit -> stream.apply(streamRequest).map(this::toJson),
+                StreamAdmission.Permit::release);
+    }
+
+    /**
+     * The JSON of the cached NDJSON rendering, without its line feed and without copying.
+     */
+    private DataBuffer toJson(TransactionFrame frame) {
+        var line = frameEncoder.render(frame, StreamEncoding.NDJSON);
+        return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(line, 0, line.length - 1));
+    }
+}
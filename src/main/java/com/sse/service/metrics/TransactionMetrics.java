@@ -0,0 +1,133 @@
+package com.sse.service.metrics;
+
+import com.sse.service.service.fanout.SlowConsumerPolicy;
+import com.sse.service.service.fanout.SlowConsumerStats;
+import com.sse.service.service.fanout.SubscriptionRegistry;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.ingest.IngestAdmission;
+import com.sse.service.service.stream.StreamAdmission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingest latency, fan-out outcomes, subscriber gauges and end-to-end delivery lag. Pool
+ * utilisation is bound by Spring Boot itself under {@code r2dbc.pool.*}.
+ */
+@Component
+public class TransactionMetrics {
+
+    public static final String STREAM_NEW = "new";
+    public static final String STREAM_ALL = "all";
+
+    private final Timer saveTimer;
+    private final Timer publishTimer;
+    private final Timer deliveryLag;
+    private final Counter replayOverflows;
+    private final AtomicInteger newSubscribers = new AtomicInteger();
+    private final AtomicInteger allSubscribers = new AtomicInteger();
+
+    public TransactionMetrics(MeterRegistry registry, SlowConsumerStats slowConsumerStats,
+                              SubscriptionRegistry subscriptionRegistry, StreamAdmission streamAdmission,
+                              IngestAdmission ingestAdmission) {
+        this.saveTimer = Timer.builder("sse.ingest.save")
+                .description("Time to persist ingested transactions")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.publishTimer = Timer.builder("sse.ingest.publish")
+                .description("Time to hand saved transactions to the fan-out")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.deliveryLag = Timer.builder("sse.delivery.lag")
+                .description("Delay from created_at until the frame is handed to the connection")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.replayOverflows = Counter.builder("sse.replay.live.overflow")
+                .description("Subscribers disconnected because live events outran their catch-up")
+                .register(registry);
+
+        Gauge.builder("sse.subscribers", newSubscribers, AtomicInteger::get).tag("stream", STREAM_NEW).register(registry);
+        Gauge.builder("sse.subscribers", allSubscribers, AtomicInteger::get).tag("stream", STREAM_ALL).register(registry);
+        Gauge.builder("sse.streams.connections", streamAdmission, StreamAdmission::connections)
+                .description("Admitted stream connections, including those still replaying")
+                .register(registry);
+        Gauge.builder("sse.subscribers.queued.bytes", subscriptionRegistry, r -> r.queuedBytes().getSum())
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("sse.subscribers.queued.max.bytes", subscriptionRegistry, r -> Math.max(0, r.queuedBytes().getMax()))
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("sse.fanout.pending", subscriptionRegistry, SubscriptionRegistry::pendingDispatches)
+                .description("Events and registrations waiting in the fan-out shards' inboxes")
+                .register(registry);
+        Gauge.builder("sse.ingest.inflight", ingestAdmission, IngestAdmission::inFlight)
+                .description("Admitted single-transaction saves not yet completed")
+                .register(registry);
+        FunctionCounter.builder("sse.ingest.rejected", ingestAdmission, IngestAdmission::rejectedUsers)
+                .description("Saves rejected with 429 before reaching the database")
+                .tag("reason", "user-rate").register(registry);
+        FunctionCounter.builder("sse.ingest.rejected", ingestAdmission, IngestAdmission::rejectedInFlight)
+                .description("Saves rejected with 429 before reaching the database")
+                .tag("reason", "in-flight").register(registry);
+
+        for (var policy : SlowConsumerPolicy.values()) {
+            var tag = policy.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder("sse.fanout.enqueued", slowConsumerStats, s -> s.snapshot(policy).enqueued())
+                    .tag("policy", tag).register(registry);
+            FunctionCounter.builder("sse.fanout.dropped", slowConsumerStats, s -> s.snapshot(policy).dropped())
+                    .tag("policy", tag).register(registry);
+            FunctionCounter.builder("sse.fanout.disconnects", slowConsumerStats, s -> s.snapshot(policy).disconnects())
+                    .tag("policy", tag).register(registry);
+            Gauge.builder("sse.fanout.buffer.high.water", slowConsumerStats, s -> s.snapshot(policy).highWaterBytes())
+                    .tag("policy", tag).baseUnit("bytes").register(registry);
+        }
+    }
+
+    public <T> Mono<T> timeSave(Mono<T> save) {
+        return time(save, saveTimer);
+    }
+
+    public <T> Mono<T> timePublish(Mono<T> publish) {
+        return time(publish, publishTimer);
+    }
+
+    public void replayOverflow() {
+        replayOverflows.increment();
+    }
+
+    /**
+     * Counts the subscriber for as long as its stream is active.
+     */
+    public <T> Flux<T> trackSubscriber(String stream, Flux<T> frames) {
+        var subscribers = STREAM_NEW.equals(stream) ? newSubscribers : allSubscribers;
+        return frames
+                .doOnSubscribe(s -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * Records delivery lag of a live frame; replayed history would only skew the distribution.
+     */
+    public void recordDelivery(TransactionFrame frame) {
+        var createdAt = frame.transaction().getCreatedAt();
+        if (createdAt != null) {
+            deliveryLag.record(Duration.between(createdAt, LocalDateTime.now()));
+        }
+    }
+
+    private static <T> Mono<T> time(Mono<T> source, Timer timer) {
+        return Mono.defer(() -> {
+            var start = System.nanoTime();
+            return source.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
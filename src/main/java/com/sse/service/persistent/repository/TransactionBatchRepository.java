@@ -0,0 +1,32 @@
+package com.sse.service.persistent.repository;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface TransactionBatchRepository {
+
+    /**
+     * Most rows one {@link #insertAll} can take: each row binds 7 parameters, and Postgres
+     * accepts at most 65535 per statement.
+     */
+    int MAX_ROWS = 65_535 / 7;
+
+    /**
+     * Inserts all transactions with a single multi-row INSERT, skipping any whose
+     * {@code transaction_id} already exists. Inserted entities get their generated id populated
+     * and are emitted; skipped ones keep a {@code null} id.
+     *
+     * @throws IllegalArgumentException if there are more than {@link #MAX_ROWS} transactions
+     */
+    Flux<TransactionsEntity> insertAll(List<TransactionsEntity> transactions);
+
+    /**
+     * @return the inserted entity, or empty if its {@code transaction_id} already exists
+     */
+    default Mono<TransactionsEntity> insert(TransactionsEntity transaction) {
+        return insertAll(List.of(transaction)).next();
+    }
+}
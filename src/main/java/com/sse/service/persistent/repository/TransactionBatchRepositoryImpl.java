@@ -0,0 +1,110 @@
+package com.sse.service.persistent.repository;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+public class TransactionBatchRepositoryImpl implements TransactionBatchRepository {
+
+    // transaction_ids is partitioned by created_at, so its key cannot keep a transaction_id unique
+    // across months; ids are locked in a fixed order for the transaction instead, and the insert
+    // that follows sees every claim committed before the locks were granted
+    private static final String LOCK_IDS = "SELECT pg_advisory_xact_lock(hashtextextended(transaction_id::text, 0)) "
+            + "FROM (SELECT DISTINCT transaction_id FROM unnest($1::uuid[]) AS transaction_id ORDER BY transaction_id) ids";
+    // ids are drawn up front so that the transaction_ids claim and the partitioned row share them;
+    // claims are joined by id, so a transaction_id repeated within one batch is inserted once
+    private static final String INSERT_PREFIX = "WITH input (id, transaction_id, status, user_id, amount, currency, "
+            + "description, created_at) AS (SELECT nextval('transactions_id_seq'), v.* FROM (VALUES ";
+    private static final String INSERT_SUFFIX = ") AS v), "
+            + "claimed AS (INSERT INTO transaction_ids (transaction_id, id, created_at) "
+            + "SELECT DISTINCT ON (transaction_id) transaction_id, id, created_at FROM input i "
+            + "WHERE NOT EXISTS (SELECT 1 FROM transaction_ids e WHERE e.transaction_id = i.transaction_id) "
+            + "ORDER BY transaction_id, id RETURNING id) "
+            + "INSERT INTO transactions (id, transaction_id, status, user_id, amount, currency, description, created_at) "
+            + "SELECT i.id, i.transaction_id, i.status, i.user_id, i.amount, i.currency, i.description, i.created_at "
+            + "FROM input i JOIN claimed c ON c.id = i.id "
+            + "RETURNING id, transaction_id";
+    private static final String[] CASTS = {"::uuid", "::varchar", "::varchar", "::numeric", "::varchar", "::varchar",
+            "::timestamp"};
+    private static final int COLUMNS = CASTS.length;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactional;
+
+    public TransactionBatchRepositoryImpl(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.transactional = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public Flux<TransactionsEntity> insertAll(List<TransactionsEntity> transactions) {
+        if (transactions.isEmpty()) {
+            return Flux.empty();
+        }
+        if (transactions.size() > MAX_ROWS) {
+            return Flux.error(new IllegalArgumentException(
+                    "At most " + MAX_ROWS + " rows fit one insert, got " + transactions.size()));
+        }
+
+        var spec = databaseClient.sql(insertStatement(transactions.size()));
+        var now = LocalDateTime.now();
+        var transactionIds = new UUID[transactions.size()];
+        for (int row = 0; row < transactions.size(); row++) {
+            var transaction = transactions.get(row);
+            if (transaction.getCreatedAt() == null) {
+                transaction.setCreatedAt(now);
+            }
+            transactionIds[row] = transaction.getTransactionId();
+            var offset = row * COLUMNS;
+            spec = bind(spec, offset, transaction.getTransactionId(), UUID.class);
+            spec = bind(spec, offset + 1, transaction.getStatus(), String.class);
+            spec = bind(spec, offset + 2, transaction.getUserId(), String.class);
+            spec = bind(spec, offset + 3, transaction.getAmount(), BigDecimal.class);
+            spec = bind(spec, offset + 4, transaction.getCurrency(), String.class);
+            spec = bind(spec, offset + 5, transaction.getDescription(), String.class);
+            spec = bind(spec, offset + 6, transaction.getCreatedAt(), LocalDateTime.class);
+        }
+
+        var byTransactionId = new HashMap<UUID, TransactionsEntity>(transactions.size() * 2);
+        for (var transaction : transactions) {
+            byTransactionId.putIfAbsent(transaction.getTransactionId(), transaction);
+        }
+        var lock = databaseClient.sql(LOCK_IDS).bind(0, transactionIds).then();
+        var insert = spec.map(row -> {
+                    var transaction = byTransactionId.get(row.get("transaction_id", UUID.class));
+                    transaction.setId(row.get("id", Long.class));
+                    return transaction;
+                })
+                .all();
+        return lock.thenMany(insert).as(transactional::transactional);
+    }
+
+    private static String insertStatement(int rows) {
+        var sql = new StringBuilder(INSERT_PREFIX.length() + INSERT_SUFFIX.length() + rows * COLUMNS * 14);
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column > 0) {
+                    sql.append(", ");
+                }
+                sql.append('$').append(row * COLUMNS + column + 1).append(CASTS[column]);
+            }
+            sql.append(')');
+        }
+        return sql.append(INSERT_SUFFIX).toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                          int index, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(index, type) : spec.bind(index, value);
+    }
+}
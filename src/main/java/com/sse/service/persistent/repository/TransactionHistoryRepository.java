@@ -0,0 +1,22 @@
+package com.sse.service.persistent.repository;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface TransactionHistoryRepository {
+
+    /**
+     * Streams one user's transactions in {@code (created_at, id)} order, fetched from the
+     * database in chunks as the subscriber requests them.
+     *
+     * @param from           inclusive lower bound on {@code created_at}, or {@code null}
+     * @param to             exclusive upper bound on {@code created_at}, or {@code null}
+     * @param afterCreatedAt keyset position to continue after, or {@code null} to start at {@code from}
+     * @param afterId        id at that position; ignored without {@code afterCreatedAt}
+     * @param limit          maximum number of rows, or {@code null} for all of them
+     */
+    Flux<TransactionsEntity> findHistory(String userId, LocalDateTime from, LocalDateTime to,
+                                         LocalDateTime afterCreatedAt, long afterId, Integer limit);
+}
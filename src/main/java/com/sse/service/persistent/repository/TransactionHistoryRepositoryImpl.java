@@ -0,0 +1,55 @@
+package com.sse.service.persistent.repository;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+@RequiredArgsConstructor
+public class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+
+    // rows per round trip; the driver only fetches the next chunk once the subscriber asks for it
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<TransactionsEntity> findHistory(String userId, LocalDateTime from, LocalDateTime to,
+                                                LocalDateTime afterCreatedAt, long afterId, Integer limit) {
+        var sql = new StringBuilder("SELECT * FROM transactions WHERE user_id = $1");
+        var bindings = new ArrayList<Object>();
+        bindings.add(userId);
+        if (from != null) {
+            bindings.add(from);
+            sql.append(" AND created_at >= $").append(bindings.size());
+        }
+        if (to != null) {
+            bindings.add(to);
+            sql.append(" AND created_at < $").append(bindings.size());
+        }
+        if (afterCreatedAt != null) {
+            bindings.add(afterCreatedAt);
+            bindings.add(afterId);
+            sql.append(" AND (created_at, id) > ($").append(bindings.size() - 1)
+                    .append(", $").append(bindings.size()).append(')');
+        }
+        sql.append(" ORDER BY created_at, id");
+        if (limit != null) {
+            bindings.add(limit);
+            sql.append(" LIMIT $").append(bindings.size());
+        }
+
+        var spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(limit == null ? FETCH_SIZE : Math.min(limit, FETCH_SIZE)));
+        for (int i = 0; i < bindings.size(); i++) {
+            spec = spec.bind(i, bindings.get(i));
+        }
+        return spec.map((row, metadata) -> converter.read(TransactionsEntity.class, row, metadata))
+                .all();
+    }
+}
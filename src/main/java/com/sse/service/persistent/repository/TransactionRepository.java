@@ -1,11 +1,25 @@
 package com.sse.service.persistent.repository;
 
 import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.UUID;
 
-public interface TransactionRepository extends R2dbcRepository<TransactionsEntity, Long> {
 
+public interface TransactionRepository extends R2dbcRepository<TransactionsEntity, Long>, TransactionBatchRepository,
+        TransactionHistoryRepository {
 
-}
+    @Query("SELECT * FROM transactions WHERE id > :afterId AND id < :beforeId ORDER BY id LIMIT :limit")
+    Flux<TransactionsEntity> findPage(long afterId, long beforeId, int limit);
+
+    @Query("SELECT * FROM transactions WHERE user_id = :userId AND id > :afterId AND id < :beforeId ORDER BY id LIMIT :limit")
+    Flux<TransactionsEntity> findUserPage(String userId, long afterId, long beforeId, int limit);
 
+    // the side table's (id, created_at) lets the join prune to the one partition holding the row
+    @Query("SELECT t.* FROM transaction_ids i JOIN transactions t ON t.id = i.id AND t.created_at = i.created_at "
+            + "WHERE i.transaction_id = :transactionId")
+    Mono<TransactionsEntity> findByTransactionId(UUID transactionId);
+}
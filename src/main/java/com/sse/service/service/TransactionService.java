@@ -1,17 +1,50 @@
 package com.sse.service.service;
 
 
+import com.sse.service.api.request.AggregateStreamRequest;
+import com.sse.service.api.request.TransactionHistoryRequest;
+import com.sse.service.api.request.TransactionStreamRequest;
 import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionBatchItemResponse;
+import com.sse.service.api.response.TransactionPageResponse;
 import com.sse.service.api.response.TransactionsResponse;
 import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.aggregate.TransactionAggregate;
+import com.sse.service.service.frame.TransactionFrame;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 public interface TransactionService {
 
+    /**
+     * Validates and saves a transaction, or errors with an {@code InvalidTransactionException}.
+     */
     Mono<TransactionsResponse> transactions(TransactionsRequest request);
 
-    Flux<TransactionsEntity> streamNewTransactions();
+    /**
+     * Saves a transaction that has already been decoded and validated.
+     */
+    Mono<TransactionsResponse> transactions(TransactionsEntity transaction);
+
+    /**
+     * Saves transactions in chunks and reports one item per request, in order; invalid ones are
+     * reported as failed.
+     */
+    Flux<TransactionBatchItemResponse> transactionsBatch(Flux<TransactionsRequest> requests);
+
+    Mono<TransactionsEntity> findTransaction(UUID transactionId);
+
+    Mono<TransactionPageResponse> transactionsPage(TransactionHistoryRequest request);
+
+    Flux<TransactionsEntity> exportTransactions(TransactionHistoryRequest request);
+
+    Flux<TransactionFrame> streamNewTransactions(TransactionStreamRequest request);
+
+    Flux<TransactionFrame> streamAllTransactions(TransactionStreamRequest request);
+
+    Flux<TransactionAggregate> streamAggregates(AggregateStreamRequest request);
 
-    Flux<TransactionsEntity> streamAllTransactions();
+    void publishTransaction(TransactionsEntity transaction);
 }
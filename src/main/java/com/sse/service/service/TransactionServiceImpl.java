@@ -1,23 +1,54 @@
 package com.sse.service.service;
 
+import com.sse.service.api.request.AggregateStreamRequest;
+import com.sse.service.api.request.TransactionHistoryRequest;
+import com.sse.service.api.request.TransactionStreamRequest;
 import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionBatchItemResponse;
+import com.sse.service.api.response.TransactionPageResponse;
 import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.config.properties.FanOutProperties;
+import com.sse.service.config.properties.HistoryProperties;
+import com.sse.service.config.properties.IngestProperties;
 import com.sse.service.mapper.TransactionMapper;
+import com.sse.service.metrics.TransactionMetrics;
 import com.sse.service.persistent.postgres.entity.TransactionsEntity;
 import com.sse.service.persistent.repository.TransactionRepository;
+import com.sse.service.service.aggregate.AggregateStore;
+import com.sse.service.service.aggregate.TransactionAggregate;
+import com.sse.service.service.cluster.ClusterNotifier;
+import com.sse.service.service.eventlog.EventLog;
+import com.sse.service.service.fanout.SubscriptionFilter;
+import com.sse.service.service.fanout.SubscriptionRegistry;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import com.sse.service.service.history.TransactionCursor;
+import com.sse.service.service.ingest.IngestAdmission;
+import com.sse.service.service.ingest.IngestRejectedException;
+import com.sse.service.service.ingest.InvalidTransactionException;
+import com.sse.service.service.ingest.TransactionDeduplicator;
+import com.sse.service.service.ingest.TransactionGroupCommitter;
+import com.sse.service.service.ingest.TransactionValidator;
+import com.sse.service.service.lookup.TransactionLookup;
+import com.sse.service.service.replay.ReplayBuffer;
+import com.sse.service.service.replay.TransactionReplayEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneOffset;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @Slf4j
@@ -26,65 +57,253 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionMapper transactionMapper;
     private final TransactionRepository transactionRepository;
-
-    private final Sinks.Many<TransactionsEntity> newTransactionsSink = Sinks.many().multicast().directBestEffort();
-    private final Sinks.Many<TransactionsEntity> allTransactionsSink = Sinks.many().replay().all();
+    private final ReplayBuffer replayBuffer;
+    private final SubscriptionRegistry subscriptionRegistry;
+    private final TransactionFrameEncoder frameEncoder;
+    private final TransactionReplayEngine replayEngine;
+    private final IngestProperties ingestProperties;
+    private final FanOutProperties fanOutProperties;
+    private final HistoryProperties historyProperties;
+    private final Optional<TransactionGroupCommitter> groupCommitter;
+    private final Optional<ClusterNotifier> clusterNotifier;
+    private final TransactionDeduplicator deduplicator;
+    private final IngestAdmission ingestAdmission;
+    private final TransactionValidator transactionValidator;
+    private final TransactionMetrics metrics;
+    private final AggregateStore aggregateStore;
+    private final Optional<EventLog> eventLog;
+    private final TransactionLookup transactionLookup;
 
     @Override
     public Mono<TransactionsResponse> transactions(TransactionsRequest request) {
-        return processTransactionAndSave(request)
+        return Mono.fromCallable(() -> {
+                    var transaction = transactionMapper.toEntity(request);
+                    transactionValidator.validate(transaction);
+                    return transaction;
+                })
+                .flatMap(this::transactions);
+    }
+
+    @Override
+    public Mono<TransactionsResponse> transactions(TransactionsEntity transaction) {
+        var transactionId = transaction.getTransactionId();
+        if (!deduplicator.tryAcquire(transactionId)) {
+            log.debug("Duplicate transaction ignored: {}", transactionId);
+            return Mono.just(new TransactionsResponse("Transaction already processed"));
+        }
+        return processTransactionAndSave(transaction)
                 .flatMap(this::processTransaction)
-                .doOnSuccess(it -> log.info("Transaction processed successfully: {}", request.getId()))
-                .onErrorResume(e -> handleTransactionError(request, e).then())
+                .doOnSuccess(it -> log.debug("Transaction processed successfully: {}", transactionId))
+                // an overloaded instance rejects rather than reporting a failed save
+                .onErrorResume(e -> !(e instanceof IngestRejectedException), e -> handleTransactionError(transactionId, e).then())
                 .thenReturn(new TransactionsResponse("Transaction processed successfully"));
     }
 
     @Override
-    public Flux<TransactionsEntity> streamAllTransactions() {
-        return allTransactionsSink.asFlux()
-                .doOnNext(tx -> log.info("Streaming all transactions: {}", tx.getTransactionId()))
-                .doOnTerminate(() -> log.info("Stream all transactions finished"))
+    public Flux<TransactionBatchItemResponse> transactionsBatch(Flux<TransactionsRequest> requests) {
+        return requests
+                .map(transactionMapper::toEntity)
+                .bufferTimeout(ingestProperties.getBatchSize(), ingestProperties.getBatchWindow(), true)
+                .concatMap(this::saveChunk);
+    }
+
+    @Override
+    public Mono<TransactionsEntity> findTransaction(UUID transactionId) {
+        return transactionLookup.find(transactionId);
+    }
+
+    @Override
+    public Mono<TransactionPageResponse> transactionsPage(TransactionHistoryRequest request) {
+        var limit = Math.min(Optional.ofNullable(request.getLimit()).orElse(historyProperties.getDefaultPageSize()),
+                historyProperties.getMaxPageSize());
+        // one extra row tells whether another page follows without a count query
+        return history(request, limit + 1)
+                .collectList()
+                .map(rows -> rows.size() <= limit
+                        ? new TransactionPageResponse(rows, null)
+                        : new TransactionPageResponse(rows.subList(0, limit),
+                        TransactionCursor.after(rows.get(limit - 1)).encode()));
+    }
+
+    @Override
+    public Flux<TransactionsEntity> exportTransactions(TransactionHistoryRequest request) {
+        return history(request, request.getLimit());
+    }
+
+    private Flux<TransactionsEntity> history(TransactionHistoryRequest request, Integer limit) {
+        var cursor = request.getCursor();
+        return transactionRepository.findHistory(request.getUserId(), request.getFrom(), request.getTo(),
+                cursor == null ? null : cursor.createdAt(), cursor == null ? 0L : cursor.id(), limit);
+    }
+
+    @Override
+    public Flux<TransactionFrame> streamAllTransactions(TransactionStreamRequest request) {
+        var filter = SubscriptionFilter.from(request);
+        var lastEventId = request.getLastEventId() == null ? 0L : request.getLastEventId();
+        var policy = Optional.ofNullable(request.getSlowConsumerPolicy()).orElse(fanOutProperties.getAllStreamPolicy());
+        var frames = replayEngine.replay(subscriptionRegistry.subscribe(filter, policy), lastEventId, filter)
+                .doOnNext(frame -> log.debug("Streaming all transactions: {}", frame.transaction().getTransactionId()))
                 .doFinally(signal -> log.info("Stream all transactions finalized with signal: {}", signal));
+        return metrics.trackSubscriber(TransactionMetrics.STREAM_ALL, frames);
     }
 
     @Override
-    public Flux<TransactionsEntity> streamNewTransactions() {
+    public Flux<TransactionFrame> streamNewTransactions(TransactionStreamRequest request) {
+        var filter = SubscriptionFilter.from(request);
+        var policy = Optional.ofNullable(request.getSlowConsumerPolicy()).orElse(fanOutProperties.getNewStreamPolicy());
+        if (request.getLastEventId() != null) {
+            var resumed = replayEngine.replay(subscriptionRegistry.subscribe(filter, policy), request.getLastEventId(), filter)
+                    .doOnSubscribe(s -> log.info("Resumed new transactions stream after id {}", request.getLastEventId()))
+                    .doOnCancel(() -> log.info("Stream new transactions cancelled"));
+            return metrics.trackSubscriber(TransactionMetrics.STREAM_NEW, resumed);
+        }
         var subscriptionTime = Instant.now();
-        return newTransactionsSink.asFlux()
-                .publishOn(Schedulers.parallel())
-                .onBackpressureBuffer(1000)
-                .filter(tx -> tx.getCreatedAt().toInstant(ZoneOffset.UTC).isAfter(subscriptionTime))
-                .distinct(TransactionsEntity::getTransactionId)
-                .doOnDiscard(TransactionsEntity.class, tx -> log.warn("Transaction discarded: {}", tx.getTransactionId()))
+        var frames = subscriptionRegistry.subscribe(filter, policy)
+                .map(ReplayBuffer.Entry::frame)
                 .doOnSubscribe(s -> log.info("Subscribed to new transactions stream at {}", subscriptionTime))
-                .doOnNext(tx -> log.info("New transaction streamed: {}", tx.getTransactionId()))
+                .doOnNext(frame -> {
+                    metrics.recordDelivery(frame);
+                    log.debug("New transaction streamed: {}", frame.transaction().getTransactionId());
+                })
                 .doOnCancel(() -> log.info("Stream new transactions cancelled"))
                 .doOnTerminate(() -> log.info("Stream new transactions finished"));
+        return metrics.trackSubscriber(TransactionMetrics.STREAM_NEW, frames);
+    }
+
+    /**
+     * The id claimed by the caller is released unless the save completes, whether it fails or is
+     * cancelled, so that a retry of it is not mistaken for a duplicate.
+     */
+    private Mono<TransactionsEntity> processTransactionAndSave(TransactionsEntity entity) {
+        var save = groupCommitter.map(committer -> committer.save(entity))
+                .orElseGet(() -> transactionRepository.insert(entity));
+        var stored = new AtomicBoolean();
+        return metrics.timeSave(save.retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
+                        .filter(e -> !(e instanceof IngestRejectedException))))
+                // an empty result is a row the unique index already holds
+                .doOnSuccess(savedEntity -> stored.set(true))
+                .doFinally(signal -> {
+                    if (!stored.get()) {
+                        deduplicator.release(entity.getTransactionId());
+                    }
+                })
+                .doOnNext(savedEntity -> log.debug("Transaction entity saved: {}", savedEntity.getTransactionId()))
+                .doOnNext(transactionLookup::put)
+                .flatMap(savedEntity -> broadcast(List.of(savedEntity)).thenReturn(savedEntity));
     }
 
-    private Mono<TransactionsEntity> processTransactionAndSave(TransactionsRequest request) {
-        var entity = transactionMapper.toEntity(request);
-        return transactionRepository.save(entity)
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
-                .doOnSuccess(savedEntity -> {
-                    log.info("Transaction entity saved: {}", savedEntity.getTransactionId());
-                    publishTransaction(savedEntity);
+    /**
+     * Invalid rows are reported as failed without taking anything. The chunk's insert holds one
+     * in-flight slot and each remaining row takes a token of its user, as a single save would;
+     * rows refused either are reported as rejected. Ids already seen by the deduplicator, and rows
+     * skipped by the unique index, are reported as duplicates and never broadcast.
+     */
+    private Flux<TransactionBatchItemResponse> saveChunk(List<TransactionsEntity> chunk) {
+        IngestAdmission.Permit permit;
+        try {
+            permit = ingestAdmission.acquire(null);
+        } catch (IngestRejectedException e) {
+            return Flux.fromIterable(chunk)
+                    .map(entity -> TransactionBatchItemResponse.rejected(entity.getTransactionId(), e.getMessage()));
+        }
+
+        // responses of rows that are not inserted at all
+        var unsaved = new IdentityHashMap<TransactionsEntity, TransactionBatchItemResponse>();
+        var accepted = new ArrayList<TransactionsEntity>(chunk.size());
+        for (var entity : chunk) {
+            try {
+                transactionValidator.validate(entity);
+            } catch (InvalidTransactionException e) {
+                unsaved.put(entity, TransactionBatchItemResponse.failed(entity.getTransactionId(), e.getMessage()));
+                continue;
+            }
+            try {
+                ingestAdmission.throttle(entity.getUserId());
+            } catch (IngestRejectedException e) {
+                unsaved.put(entity, TransactionBatchItemResponse.rejected(entity.getTransactionId(), e.getMessage()));
+                continue;
+            }
+            if (deduplicator.tryAcquire(entity.getTransactionId())) {
+                accepted.add(entity);
+            }
+        }
+        return metrics.timeSave(transactionRepository.insertAll(accepted).collectList())
+                .flatMapMany(saved -> broadcast(saved)
+                        .thenMany(Flux.fromIterable(chunk))
+                        .map(entity -> toBatchItemResponse(entity, unsaved)))
+                .onErrorResume(e -> {
+                    log.warn("Multi-row insert of {} transactions failed, falling back to single-row inserts", accepted.size(), e);
+                    var retried = Collections.newSetFromMap(new IdentityHashMap<TransactionsEntity, Boolean>());
+                    retried.addAll(accepted);
+                    accepted.forEach(entity -> entity.setId(null));
+                    return Flux.fromIterable(chunk)
+                            .concatMap(entity -> retried.contains(entity)
+                                    ? saveSingle(entity)
+                                    : Mono.just(toBatchItemResponse(entity, unsaved)));
+                })
+                .doFinally(signal -> permit.release());
+    }
+
+    private Mono<TransactionBatchItemResponse> saveSingle(TransactionsEntity entity) {
+        return transactionRepository.insert(entity)
+                .flatMap(saved -> broadcast(List.of(saved)).thenReturn(saved))
+                .map(TransactionBatchItemResponse::saved)
+                .defaultIfEmpty(TransactionBatchItemResponse.duplicate(entity.getTransactionId()))
+                .onErrorResume(e -> {
+                    deduplicator.release(entity.getTransactionId());
+                    return Mono.just(TransactionBatchItemResponse.failed(entity.getTransactionId(), e.getMessage()));
                 });
     }
 
+    private static TransactionBatchItemResponse toBatchItemResponse(
+            TransactionsEntity entity, Map<TransactionsEntity, TransactionBatchItemResponse> unsaved) {
+        var response = unsaved.get(entity);
+        if (response != null) {
+            return response;
+        }
+        return entity.getId() != null
+                ? TransactionBatchItemResponse.saved(entity)
+                : TransactionBatchItemResponse.duplicate(entity.getTransactionId());
+    }
+
+    /**
+     * Hands saved transactions to the local sinks, or, in cluster mode, to every instance through
+     * Postgres notifications (this instance included). A failed notification never fails the save:
+     * the transactions are then published locally only, and the other instances' clients pick
+     * them up from storage when they resume with {@code Last-Event-ID}.
+     */
+    private Mono<Void> broadcast(List<TransactionsEntity> saved) {
+        var local = Mono.<Void>fromRunnable(() -> saved.forEach(this::publishTransaction));
+        return metrics.timePublish(clusterNotifier
+                .map(notifier -> notifier.announce(saved)
+                        .onErrorResume(e -> {
+                            log.error("Failed to announce {} transactions to the cluster, publishing them locally",
+                                    saved.size(), e);
+                            return local;
+                        }))
+                .orElse(local));
+    }
+
+    @Override
+    public Flux<TransactionAggregate> streamAggregates(AggregateStreamRequest request) {
+        return aggregateStore.deltas(request.getDimension(), request.getKey());
+    }
+
+    @Override
     public void publishTransaction(TransactionsEntity transaction) {
-        var resultAll = allTransactionsSink.tryEmitNext(transaction);
-        var resultNew = newTransactionsSink.tryEmitNext(transaction);
-        log.info("Emitted to new transaction sink: {}, result: {}", transaction.getTransactionId(), resultNew);
-        log.info("Emitted to all transaction sink: {}, result: {}", transaction.getTransactionId(), resultAll);
+        var entry = replayBuffer.append(frameEncoder.encode(transaction));
+        subscriptionRegistry.dispatch(entry);
+        eventLog.ifPresent(events -> events.append(entry.frame()));
+        aggregateStore.apply(transaction);
+        log.debug("Dispatched transaction to subscribers: {}", transaction.getTransactionId());
     }
 
     private Mono<Void> processTransaction(TransactionsEntity entity) {
-        return Mono.fromRunnable(() -> log.info("Transaction processed with id: {}", entity.getTransactionId()));
+        return Mono.fromRunnable(() -> log.debug("Transaction processed with id: {}", entity.getTransactionId()));
     }
 
-    public Mono<TransactionsResponse> handleTransactionError(TransactionsRequest request, Throwable error) {
-        log.error("Transaction processing failed: {}", request.getId(), error);
+    public Mono<TransactionsResponse> handleTransactionError(UUID transactionId, Throwable error) {
+        log.error("Transaction processing failed: {}", transactionId, error);
         return Mono.just(new TransactionsResponse("Transaction failed due to an unexpected error"));
     }
 }
\ No newline at end of file
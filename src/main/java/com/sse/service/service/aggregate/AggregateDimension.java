@@ -0,0 +1,17 @@
+package com.sse.service.service.aggregate;
+
+import java.util.Locale;
+
+public enum AggregateDimension {
+    USER,
+    CURRENCY;
+
+    /**
+     * Case-insensitive, e.g. {@code user}.
+     *
+     * @throws IllegalArgumentException if the value names no dimension
+     */
+    public static AggregateDimension parse(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,35 @@
+package com.sse.service.service.aggregate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class AggregateFrameEncoder {
+
+    private static final byte[] DATA = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectWriter writer;
+
+    public AggregateFrameEncoder(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(TransactionAggregate.class);
+    }
+
+    public byte[] encode(TransactionAggregate aggregate) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(aggregate);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode aggregate " + aggregate.key(), e);
+        }
+        var frame = new byte[DATA.length + json.length + END.length];
+        System.arraycopy(DATA, 0, frame, 0, DATA.length);
+        System.arraycopy(json, 0, frame, DATA.length, json.length);
+        System.arraycopy(END, 0, frame, DATA.length + json.length, END.length);
+        return frame;
+    }
+}
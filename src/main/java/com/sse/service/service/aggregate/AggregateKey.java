@@ -0,0 +1,4 @@
+package com.sse.service.service.aggregate;
+
+public record AggregateKey(AggregateDimension dimension, String key) {
+}
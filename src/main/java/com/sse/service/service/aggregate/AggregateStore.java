@@ -0,0 +1,242 @@
+package com.sse.service.service.aggregate;
+
+import com.sse.service.config.properties.AggregateProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running count, sum of amount and last status per userId and per currency, updated for every
+ * published transaction and rebuilt from Postgres at startup. Every userId ever seen keeps its
+ * aggregate for the life of the instance, so memory grows with the number of distinct users.
+ *
+ * <p>Transactions published while the rebuild runs are held back and applied afterwards unless
+ * the rebuild counted them. Ids are not committed in order, so a held-back id below the
+ * rebuild's bound is looked up again in the rebuild's own snapshot rather than assumed counted.
+ *
+ * <p>Delta subscribers only track which keys changed, so each of them receives at most one value
+ * per key and emit interval however fast keys change.
+ */
+@Slf4j
+@Component
+public class AggregateStore {
+
+    private static final String MAX_ID = "SELECT coalesce(max(id), 0) AS max_id FROM transactions";
+    private static final String REBUILD = """
+            SELECT 'USER' AS dimension, user_id AS key, count(*) AS count, sum(amount) AS sum, max(id) AS last_id,
+                   (array_agg(status ORDER BY id DESC))[1] AS last_status
+            FROM transactions WHERE id <= $1 GROUP BY user_id
+            UNION ALL
+            SELECT 'CURRENCY', currency, count(*), sum(amount), max(id), (array_agg(status ORDER BY id DESC))[1]
+            FROM transactions WHERE id <= $1 GROUP BY currency""";
+    private static final String SEEN = "SELECT id FROM transactions WHERE id = ANY($1)";
+
+    private final Map<AggregateKey, TransactionAggregate> aggregates = new ConcurrentHashMap<>();
+    private final Set<DeltaSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator snapshot;
+    private final AggregateProperties properties;
+
+    // guarded by this; non-null until the startup rebuild has been applied
+    private List<TransactionsEntity> heldBack;
+    private volatile boolean rebuilding;
+
+    public AggregateStore(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager,
+                          AggregateProperties properties) {
+        this.databaseClient = databaseClient;
+        // every statement of the rebuild reads the same snapshot
+        var definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        definition.setReadOnly(true);
+        this.snapshot = TransactionalOperator.create(transactionManager, definition);
+        this.properties = properties;
+        this.rebuilding = properties.isRebuildOnStartup();
+        this.heldBack = rebuilding ? new ArrayList<>() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuilding) {
+            return;
+        }
+        databaseClient.sql(MAX_ID)
+                .map(row -> row.get("max_id", Long.class))
+                .one()
+                .flatMap(maxId -> databaseClient.sql(REBUILD)
+                        .bind(0, maxId)
+                        .map(row -> new TransactionAggregate(
+                                AggregateDimension.valueOf(row.get("dimension", String.class)),
+                                row.get("key", String.class),
+                                row.get("count", Long.class),
+                                row.get("sum", BigDecimal.class),
+                                row.get("last_status", String.class),
+                                row.get("last_id", Long.class)))
+                        .all()
+                        .collectList()
+                        .flatMap(rebuilt -> completeRebuild(rebuilt, maxId, new HashSet<>(), new HashSet<>())
+                                .thenReturn(rebuilt)))
+                .as(snapshot::transactional)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .subscribe(
+                        rebuilt -> log.info("Rebuilt {} aggregates from the database", rebuilt.size()),
+                        e -> {
+                            log.error("Failed to rebuild aggregates, continuing with live transactions only", e);
+                            finishRebuild(List.of(), Set.of());
+                        });
+    }
+
+    public void apply(TransactionsEntity transaction) {
+        if (rebuilding) {
+            synchronized (this) {
+                if (heldBack != null) {
+                    heldBack.add(transaction);
+                    return;
+                }
+            }
+        }
+        update(new AggregateKey(AggregateDimension.USER, transaction.getUserId()), transaction);
+        update(new AggregateKey(AggregateDimension.CURRENCY, transaction.getCurrency()), transaction);
+    }
+
+    /**
+     * Current values of the matching aggregates, followed by the latest value of every changed
+     * key once per emit interval.
+     *
+     * @param dimension restricts the stream to one dimension, or {@code null} for both
+     * @param key       restricts the stream to one key of {@code dimension}, or {@code null}
+     */
+    public Flux<TransactionAggregate> deltas(AggregateDimension dimension, String key) {
+        return Flux.defer(() -> {
+            var subscription = new DeltaSubscription(dimension, key);
+            subscriptions.add(subscription);
+            var current = aggregates.values().stream()
+                    .filter(aggregate -> subscription.matches(new AggregateKey(aggregate.dimension(), aggregate.key())))
+                    .toList();
+            var changes = Flux.interval(properties.getEmitInterval())
+                    .onBackpressureDrop()
+                    .concatMapIterable(tick -> subscription.drain(aggregates));
+            return Flux.fromIterable(current)
+                    .concatWith(changes)
+                    .doFinally(signal -> subscriptions.remove(subscription));
+        });
+    }
+
+    private void update(AggregateKey key, TransactionsEntity transaction) {
+        if (key.key() == null) {
+            return;
+        }
+        aggregates.compute(key, (k, aggregate) -> aggregate == null
+                ? TransactionAggregate.of(k, transaction)
+                : aggregate.plus(transaction));
+        for (var subscription : subscriptions) {
+            if (subscription.matches(key)) {
+                subscription.changed(key);
+            }
+        }
+    }
+
+    /**
+     * Looks up, in the rebuild's snapshot, which held-back ids up to {@code maxId} it counted,
+     * until no unchecked one is left, and then finishes the rebuild without those.
+     *
+     * @param checked held-back ids already looked up
+     * @param seen    the subset of {@code checked} that the rebuild counted
+     */
+    private Mono<Void> completeRebuild(List<TransactionAggregate> rebuilt, long maxId, Set<Long> checked, Set<Long> seen) {
+        return Mono.defer(() -> {
+            List<Long> unchecked;
+            synchronized (this) {
+                if (heldBack == null) {
+                    return Mono.empty();
+                }
+                unchecked = heldBack.stream()
+                        .map(TransactionsEntity::getId)
+                        .filter(id -> id <= maxId && !checked.contains(id))
+                        .toList();
+                if (unchecked.isEmpty()) {
+                    finishRebuild(rebuilt, seen);
+                    return Mono.empty();
+                }
+            }
+            checked.addAll(unchecked);
+            return databaseClient.sql(SEEN)
+                    .bind(0, unchecked.toArray(Long[]::new))
+                    .map(row -> row.get("id", Long.class))
+                    .all()
+                    .doOnNext(seen::add)
+                    .then(completeRebuild(rebuilt, maxId, checked, seen));
+        });
+    }
+
+    private synchronized void finishRebuild(List<TransactionAggregate> rebuilt, Set<Long> seen) {
+        if (heldBack == null) {
+            return;
+        }
+        for (var aggregate : rebuilt) {
+            var key = new AggregateKey(aggregate.dimension(), aggregate.key());
+            aggregates.put(key, aggregate);
+            subscriptions.stream().filter(subscription -> subscription.matches(key))
+                    .forEach(subscription -> subscription.changed(key));
+        }
+        var pending = heldBack;
+        heldBack = null;
+        rebuilding = false;
+        pending.stream()
+                .filter(transaction -> !seen.contains(transaction.getId()))
+                .forEach(this::apply);
+    }
+
+    private static final class DeltaSubscription {
+
+        private final AggregateDimension dimension;
+        private final String key;
+        private final Set<AggregateKey> changed = ConcurrentHashMap.newKeySet();
+
+        private DeltaSubscription(AggregateDimension dimension, String key) {
+            this.dimension = dimension;
+            this.key = key;
+        }
+
+        boolean matches(AggregateKey candidate) {
+            return (dimension == null || dimension == candidate.dimension())
+                    && (key == null || key.equals(candidate.key()));
+        }
+
+        void changed(AggregateKey key) {
+            changed.add(key);
+        }
+
+        List<TransactionAggregate> drain(Map<AggregateKey, TransactionAggregate> aggregates) {
+            var deltas = new ArrayList<TransactionAggregate>(changed.size());
+            for (var iterator = changed.iterator(); iterator.hasNext(); ) {
+                var key = iterator.next();
+                iterator.remove();
+                var aggregate = aggregates.get(key);
+                if (aggregate != null) {
+                    deltas.add(aggregate);
+                }
+            }
+            return deltas;
+        }
+    }
+}
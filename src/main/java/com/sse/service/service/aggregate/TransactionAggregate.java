@@ -0,0 +1,29 @@
+package com.sse.service.service.aggregate;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of one user or currency. Immutable; every update produces a new instance.
+ *
+ * @param lastId id of the latest transaction counted, which also decides {@code lastStatus}
+ */
+public record TransactionAggregate(AggregateDimension dimension, String key, long count, BigDecimal sum,
+                                   String lastStatus, long lastId) {
+
+    static TransactionAggregate of(AggregateKey key, TransactionsEntity transaction) {
+        return new TransactionAggregate(key.dimension(), key.key(), 1, amountOf(transaction),
+                transaction.getStatus(), transaction.getId());
+    }
+
+    TransactionAggregate plus(TransactionsEntity transaction) {
+        var latest = transaction.getId() > lastId;
+        return new TransactionAggregate(dimension, key, count + 1, sum.add(amountOf(transaction)),
+                latest ? transaction.getStatus() : lastStatus, latest ? transaction.getId() : lastId);
+    }
+
+    private static BigDecimal amountOf(TransactionsEntity transaction) {
+        return transaction.getAmount() == null ? BigDecimal.ZERO : transaction.getAmount();
+    }
+}
@@ -0,0 +1,162 @@
+package com.sse.service.service.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sse.service.config.properties.ClusterProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.persistent.repository.TransactionRepository;
+import com.sse.service.service.TransactionService;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holds one dedicated {@code LISTEN} connection per instance and feeds every notification into
+ * the local stream sinks, in notification order. The connection is opened outside the pool so
+ * that it never starves regular queries, and it is re-established with backoff if it drops;
+ * clients bridge anything missed during the gap by reconnecting with {@code Last-Event-ID}.
+ *
+ * <p>A notification that cannot be resolved, because its payload is corrupt or the rows cannot
+ * be fetched, is logged and skipped; only a failure of the connection itself reconnects, so one
+ * bad notification never drops the ones after it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "sse.cluster", name = "enabled", havingValue = "true")
+public class ClusterNotificationListener {
+
+    private final R2dbcProperties r2dbcProperties;
+    private final ClusterProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+
+    private Disposable subscription;
+    private volatile boolean listening;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.usingWhen(connect(), this::listen, PostgresqlConnection::close)
+                .map(Notification::getParameter)
+                .bufferTimeout(properties.getFetchBatchSize(), properties.getFetchWindow(), true)
+                .concatMap(this::resolve)
+                .doOnNext(this::publish)
+                .doOnError(e -> {
+                    listening = false;
+                    log.warn("Cluster notification listener failed, reconnecting", e);
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectBackoff())
+                        .maxBackoff(properties.getReconnectBackoff().multipliedBy(30)))
+                .subscribe();
+        log.info("Listening for cluster transaction notifications on channel {}", properties.getChannel());
+    }
+
+    /**
+     * Whether the {@code LISTEN} is in place, so that notifications sent from now on arrive.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<PostgresqlConnection> connect() {
+        var options = ConnectionFactoryOptions.parse(r2dbcProperties.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword())
+                .build();
+        return Mono.from(ConnectionFactories.get(options).create())
+                .cast(PostgresqlConnection.class);
+    }
+
+    private Flux<Notification> listen(PostgresqlConnection connection) {
+        return connection.createStatement("LISTEN \"" + properties.getChannel() + "\"")
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .doOnComplete(() -> listening = true)
+                .thenMany(connection.getNotifications());
+    }
+
+    private Flux<TransactionsEntity> resolve(List<String> payloads) {
+        var ids = payloads.stream()
+                .filter(payload -> !isInline(payload))
+                .map(ClusterNotificationListener::parseId)
+                .filter(Objects::nonNull)
+                .toList();
+        var fetched = ids.isEmpty()
+                ? Mono.just(Map.<Long, TransactionsEntity>of())
+                : transactionRepository.findAllById(ids)
+                .collectMap(TransactionsEntity::getId)
+                .retryWhen(Retry.backoff(3, properties.getReconnectBackoff()))
+                .onErrorResume(e -> {
+                    log.error("Failed to fetch {} notified transactions, skipping them", ids.size(), e);
+                    return Mono.just(Map.of());
+                });
+
+        return fetched.flatMapIterable(byId -> {
+            var resolved = new ArrayList<TransactionsEntity>(payloads.size());
+            for (var payload : payloads) {
+                var transaction = isInline(payload) ? decode(payload) : byId.get(parseId(payload));
+                if (transaction != null) {
+                    resolved.add(transaction);
+                }
+            }
+            return resolved;
+        });
+    }
+
+    private void publish(TransactionsEntity transaction) {
+        try {
+            transactionService.publishTransaction(transaction);
+        } catch (RuntimeException e) {
+            log.error("Failed to publish notified transaction {}", transaction.getId(), e);
+        }
+    }
+
+    private static boolean isInline(String payload) {
+        return payload.startsWith("{");
+    }
+
+    private static Long parseId(String payload) {
+        try {
+            return Long.valueOf(payload);
+        } catch (NumberFormatException e) {
+            log.error("Skipping malformed cluster notification {}", payload);
+            return null;
+        }
+    }
+
+    private TransactionsEntity decode(String payload) {
+        try {
+            return objectMapper.readValue(payload, TransactionsEntity.class);
+        } catch (IOException e) {
+            log.error("Skipping undecodable cluster notification {}", payload, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.sse.service.service.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sse.service.config.properties.ClusterProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Announces saved transactions to every instance with {@code pg_notify}. Small transactions
+ * travel inline as JSON; larger ones are sent as their id and fetched by the listeners.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "sse.cluster", name = "enabled", havingValue = "true")
+public class ClusterNotifier {
+
+    private static final String NOTIFY_ALL = "SELECT pg_notify($1, payload) FROM unnest($2::text[]) AS payload";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final ClusterProperties properties;
+
+    public Mono<Void> announce(List<TransactionsEntity> transactions) {
+        if (transactions.isEmpty()) {
+            return Mono.empty();
+        }
+        var payloads = transactions.stream().map(this::toPayload).toArray(String[]::new);
+        return databaseClient.sql(NOTIFY_ALL)
+                .bind(0, properties.getChannel())
+                .bind(1, payloads)
+                .then();
+    }
+
+    private String toPayload(TransactionsEntity transaction) {
+        try {
+            var json = objectMapper.writeValueAsString(transaction);
+            if (json.getBytes(StandardCharsets.UTF_8).length <= properties.getMaxInlinePayloadBytes()) {
+                return json;
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Could not inline transaction {}, sending its id instead", transaction.getId(), e);
+        }
+        return String.valueOf(transaction.getId());
+    }
+}
@@ -0,0 +1,522 @@
+package com.sse.service.service.eventlog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sse.service.config.properties.EventLogProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.persistent.repository.TransactionRepository;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of published SSE frames in memory-mapped segments, so that catch-up replays
+ * are served from the page cache instead of Postgres or the heap. Unfiltered SSE replays are
+ * handed out as slices of the mapping; filtered ones decode each frame to match it.
+ *
+ * <p>The log is caught up from Postgres at startup: from its last frame if it matches the
+ * database, otherwise discarded and rebuilt from the rows within {@code max-age}. Frames
+ * published meanwhile are held back and appended afterwards unless the catch-up wrote them.
+ *
+ * <p>Publishing only copies the frame into the active segment. The next segment is mapped ahead
+ * of time and old ones are deleted by total size and age on a maintenance thread, after every
+ * roll and every {@code retention-interval}. The directory is locked, so a second instance
+ * pointed at it fails to start instead of corrupting the log.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sse.event-log", name = "enabled", havingValue = "true")
+public class EventLog {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SPARE_SUFFIX = ".next";
+    private static final String LOCK_FILE = "event-log.lock";
+    private static final String MAX_ID = "SELECT coalesce(max(id), 0) AS max_id FROM transactions";
+    private static final String REBUILD_AFTER_ID = """
+            SELECT coalesce(min(id) - 1, $1) AS after_id FROM transactions WHERE created_at >= $2""";
+
+    private final EventLogProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final DatabaseClient databaseClient;
+    private final TransactionFrameEncoder frameEncoder;
+    private final ObjectReader reader;
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    private final Scheduler maintenance = Schedulers.newSingle("event-log-maintenance");
+    private final FileChannel lock;
+    private final Disposable retention;
+
+    // Long.MAX_VALUE while the log covers nothing, i.e. before the catch-up or after it failed
+    private volatile long coveredAfterId = Long.MAX_VALUE;
+    // guarded by this; non-null until the startup catch-up has been applied
+    private List<TransactionFrame> heldBack = new ArrayList<>();
+    private volatile boolean catchingUp = true;
+    // guarded by this; the next segment, mapped by the maintenance thread
+    private LogSegment spare;
+
+    public EventLog(EventLogProperties properties, TransactionRepository transactionRepository,
+                    DatabaseClient databaseClient, TransactionFrameEncoder frameEncoder, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.transactionRepository = transactionRepository;
+        this.databaseClient = databaseClient;
+        this.frameEncoder = frameEncoder;
+        this.reader = objectMapper.readerFor(TransactionsEntity.class);
+        this.lock = lock(properties.getDirectory());
+        open();
+        maintenance.schedule(this::maintain);
+        this.retention = Flux.interval(properties.getRetentionInterval(), maintenance)
+                .subscribe(tick -> maintain());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        databaseClient.sql(MAX_ID)
+                .map(row -> row.get("max_id", Long.class))
+                .one()
+                .flatMap(maxId -> {
+                    if (lastId() == 0 || lastId() > maxId) {
+                        if (lastId() > maxId) {
+                            log.warn("Event log ends at id {} beyond the database's {}, rebuilding it", lastId(), maxId);
+                        }
+                        discard();
+                    }
+                    var rebuild = segments.isEmpty();
+                    var covered = rebuild
+                            ? databaseClient.sql(REBUILD_AFTER_ID)
+                            .bind(0, maxId)
+                            .bind(1, LocalDateTime.now().minus(properties.getMaxAge()))
+                            .map(row -> row.get("after_id", Long.class))
+                            .one()
+                            : Mono.just(segments.get(0).minId() - 1);
+                    return covered.flatMap(afterId -> appendPages(rebuild ? afterId : lastId(), maxId)
+                                    .then(Mono.fromRunnable(() -> completeCatchUp(maxId, afterId))))
+                            .thenReturn(maxId);
+                })
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .subscribe(
+                        maxId -> log.info("Event log caught up to id {} in {} segments", maxId, segments.size()),
+                        e -> {
+                            log.error("Failed to catch up the event log, replaying from Postgres until it refills", e);
+                            discard();
+                            completeCatchUp(0L, Long.MAX_VALUE);
+                        });
+    }
+
+    public void append(TransactionFrame frame) {
+        if (catchingUp) {
+            synchronized (this) {
+                if (heldBack != null) {
+                    heldBack.add(frame);
+                    return;
+                }
+            }
+        }
+        write(frame.transaction().getId(), frame.sse());
+    }
+
+    /**
+     * Every transaction with a higher id published since the log was opened is in it; older ones
+     * have to be read from Postgres. {@code Long.MAX_VALUE} while the log cannot be used.
+     */
+    public long coveredAfterId() {
+        return catchingUp ? Long.MAX_VALUE : coveredAfterId;
+    }
+
+    /**
+     * Frames with {@code afterId < id < beforeId} as of now, in log order, decoded so that they can
+     * be filtered and re-encoded like live frames.
+     */
+    public Flux<TransactionFrame> frames(long afterId, long beforeId) {
+        return Flux.generate(() -> new Cursor(segments, afterId), (cursor, sink) -> {
+            while (cursor.next()) {
+                var id = cursor.id();
+                if (id > afterId && id < beforeId) {
+                    sink.next(decode(cursor));
+                    return cursor;
+                }
+            }
+            sink.complete();
+            return cursor;
+        });
+    }
+
+    /**
+     * All frames with an id above {@code afterId} as of now, as runs of consecutive frames that
+     * are views of the mapped segments rather than copies.
+     *
+     * @param lastId raised to the highest id handed out, to resume the stream after it
+     */
+    public Flux<ByteBuffer> chunks(long afterId, AtomicLong lastId) {
+        var maxChunkSize = Math.toIntExact(properties.getMaxChunkSize().toBytes());
+        return Flux.generate(() -> new Cursor(segments, afterId), (cursor, sink) -> {
+            LogSegment runSegment = null;
+            var runStart = 0;
+            var runEnd = 0;
+            while (cursor.next()) {
+                var skip = cursor.id() <= afterId;
+                var joins = runSegment == cursor.segment() && cursor.position() == runEnd
+                        && cursor.frameEnd() - runStart <= maxChunkSize;
+                if (runSegment != null && (skip || !joins)) {
+                    // the frame under the cursor is not part of this run; hand it out on the next call
+                    cursor.rewind();
+                    break;
+                }
+                if (!skip) {
+                    if (runSegment == null) {
+                        runSegment = cursor.segment();
+                        runStart = cursor.position();
+                    }
+                    runEnd = cursor.frameEnd();
+                    lastId.accumulateAndGet(cursor.id(), Math::max);
+                }
+            }
+            if (runSegment == null) {
+                sink.complete();
+            } else {
+                sink.next(runSegment.slice(runStart, runEnd - runStart));
+            }
+            return cursor;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        retention.dispose();
+        maintenance.dispose();
+        segments.forEach(LogSegment::flush);
+        try {
+            // releases the directory lock
+            lock.close();
+        } catch (IOException e) {
+            log.warn("Failed to release the event log directory {}", properties.getDirectory(), e);
+        }
+    }
+
+    private synchronized void write(long id, byte[] frame) {
+        var active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || !active.append(id, frame)) {
+            active = roll(active, frame.length);
+            active.append(id, frame);
+        }
+        if (coveredAfterId == Long.MAX_VALUE) {
+            coveredAfterId = id - 1;
+        }
+    }
+
+    /**
+     * Activates the spare segment if the maintenance thread has mapped it; only a writer that
+     * outruns it maps the next segment itself, holding up every publish behind it meanwhile.
+     */
+    private LogSegment roll(LogSegment previous, int frameLength) {
+        var number = previous == null ? 0 : previous.number() + 1;
+        var next = spare;
+        spare = null;
+        if (next == null || next.number() != number || next.capacity() < frameLength) {
+            if (next != null) {
+                next.delete();
+            }
+            log.debug("No spare event log segment ready, mapping segment {} inline", number);
+            next = LogSegment.create(sparePath(number), number, Math.max(segmentCapacity(), frameLength), indexInterval());
+        }
+        next.activate(segmentPath(number), previous == null ? 0 : previous.maxId());
+        segments.add(next);
+        maintenance.schedule(this::maintain);
+        return next;
+    }
+
+    /**
+     * Runs on the maintenance thread: maps the spare segment if there is none, then applies
+     * retention. Failures are logged and retried on the next run.
+     */
+    private void maintain() {
+        try {
+            prepareSpare();
+            applyRetention();
+        } catch (RuntimeException e) {
+            log.error("Event log maintenance failed", e);
+        }
+    }
+
+    private void prepareSpare() {
+        long number;
+        synchronized (this) {
+            if (spare != null) {
+                return;
+            }
+            number = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).number() + 1;
+        }
+        var prepared = LogSegment.create(sparePath(number), number, segmentCapacity(), indexInterval());
+        synchronized (this) {
+            var expected = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).number() + 1;
+            if (spare == null && number == expected) {
+                spare = prepared;
+                return;
+            }
+        }
+        // the writer rolled meanwhile; the next run maps the following one
+        prepared.delete();
+    }
+
+    private void applyRetention() {
+        var maxSize = properties.getMaxSize().toBytes();
+        var expiredBefore = System.currentTimeMillis() - properties.getMaxAge().toMillis();
+        var expired = new ArrayList<LogSegment>();
+        synchronized (this) {
+            var size = segments.stream().mapToLong(LogSegment::capacity).sum();
+            while (segments.size() > 1) {
+                var oldest = segments.get(0);
+                if (size <= maxSize && oldest.lastAppendedAt() >= expiredBefore) {
+                    break;
+                }
+                segments.remove(0);
+                size -= oldest.capacity();
+                coveredAfterId = Math.max(coveredAfterId == Long.MAX_VALUE ? 0 : coveredAfterId, oldest.maxId());
+                expired.add(oldest);
+            }
+        }
+        for (var oldest : expired) {
+            oldest.delete();
+            log.debug("Deleted event log segment {}", oldest.number());
+        }
+    }
+
+    private Mono<Void> appendPages(long afterId, long maxId) {
+        if (afterId >= maxId) {
+            return Mono.empty();
+        }
+        var pageSize = properties.getRebuildPageSize();
+        return transactionRepository.findPage(afterId, maxId + 1, pageSize)
+                .doOnNext(transaction -> write(transaction.getId(), frameEncoder.encode(transaction).sse()))
+                .map(TransactionsEntity::getId)
+                .collectList()
+                .flatMap(ids -> ids.size() < pageSize
+                        ? Mono.empty()
+                        : Mono.defer(() -> appendPages(ids.get(ids.size() - 1), maxId)));
+    }
+
+    /**
+     * Appends the held-back frames the catch-up did not write. Ids are not committed in order, so
+     * a frame with an id up to {@code maxId} may have committed after the page that should have
+     * held it was read; the log itself is checked for those rather than assuming they are in it.
+     */
+    private void completeCatchUp(long maxId, long covered) {
+        synchronized (this) {
+            if (heldBack == null) {
+                return;
+            }
+            coveredAfterId = covered;
+            var pending = heldBack;
+            heldBack = null;
+            catchingUp = false;
+            var lowest = pending.stream().mapToLong(frame -> frame.transaction().getId()).min().orElse(maxId);
+            var written = loggedIds(Math.min(lowest, maxId) - 1, maxId + 1);
+            pending.stream()
+                    .filter(frame -> !written.contains(frame.transaction().getId()))
+                    .forEach(this::append);
+        }
+    }
+
+    /**
+     * Ids with {@code afterId < id < beforeId} in the log, read from the frame headers only.
+     */
+    private Set<Long> loggedIds(long afterId, long beforeId) {
+        var ids = new HashSet<Long>();
+        var cursor = new Cursor(segments, afterId);
+        while (cursor.next()) {
+            if (cursor.id() > afterId && cursor.id() < beforeId) {
+                ids.add(cursor.id());
+            }
+        }
+        return ids;
+    }
+
+    private TransactionFrame decode(Cursor cursor) {
+        var sse = new byte[cursor.frameEnd() - cursor.position()];
+        cursor.segment().read(cursor.position(), sse);
+        var dataStart = 3 + String.valueOf(cursor.id()).length() + 6;
+        try {
+            TransactionsEntity transaction = reader.readValue(sse, dataStart, sse.length - dataStart - 2);
+            return new TransactionFrame(transaction, sse);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt frame " + cursor.id() + " in event log segment "
+                    + cursor.segment().number(), e);
+        }
+    }
+
+    private long lastId() {
+        return segments.isEmpty() ? 0 : segments.get(segments.size() - 1).maxId();
+    }
+
+    /**
+     * Locks the directory for this instance, so that two of them never write the same segments.
+     */
+    private static FileChannel lock(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            var channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                if (channel.tryLock() != null) {
+                    return channel;
+                }
+            } catch (OverlappingFileLockException e) {
+                // held by another application context in this JVM
+            }
+            channel.close();
+            throw new IllegalStateException("Event log directory " + directory
+                    + " is in use by another instance; give each instance its own sse.event-log.directory");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to lock event log directory " + directory, e);
+        }
+    }
+
+    private void open() {
+        try {
+            List<Path> files;
+            try (var listing = Files.list(properties.getDirectory())) {
+                files = listing.sorted(Comparator.comparing(path -> path.getFileName().toString())).toList();
+            }
+            for (var file : files) {
+                // a spare that was never activated
+                if (file.getFileName().toString().endsWith(SPARE_SUFFIX)) {
+                    Files.delete(file);
+                }
+            }
+            files = files.stream()
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .toList();
+            var previousMaxId = 0L;
+            for (var file : files) {
+                var name = file.getFileName().toString();
+                var segment = LogSegment.open(file, Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+                        indexInterval(), previousMaxId);
+                segments.add(segment);
+                previousMaxId = segment.maxId();
+            }
+            log.info("Opened event log with {} segments up to id {}", segments.size(), previousMaxId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open event log in " + properties.getDirectory(), e);
+        }
+    }
+
+    private synchronized void discard() {
+        segments.forEach(LogSegment::delete);
+        segments.clear();
+        if (spare != null) {
+            spare.delete();
+            spare = null;
+        }
+        coveredAfterId = Long.MAX_VALUE;
+        maintenance.schedule(this::maintain);
+    }
+
+    private Path segmentPath(long number) {
+        return properties.getDirectory().resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+    }
+
+    private Path sparePath(long number) {
+        return properties.getDirectory().resolve(String.format("%020d%s", number, SPARE_SUFFIX));
+    }
+
+    private int segmentCapacity() {
+        return Math.toIntExact(properties.getSegmentSize().toBytes());
+    }
+
+    private int indexInterval() {
+        return Math.toIntExact(properties.getIndexInterval().toBytes());
+    }
+
+    /**
+     * Walks the frames of the segments present when it was created, up to their ends at that
+     * moment, starting at the index entry for {@code afterId}.
+     */
+    private static final class Cursor {
+
+        private final List<LogSegment> segments;
+        private final long afterId;
+        private final int lastEnd;
+        private int segmentIndex;
+        private int position;
+        private int frameEnd;
+        private long id;
+
+        private Cursor(List<LogSegment> segments, long afterId) {
+            this.segments = List.copyOf(segments);
+            this.afterId = afterId;
+            this.lastEnd = this.segments.isEmpty() ? 0 : this.segments.get(this.segments.size() - 1).end();
+            // segments holding nothing above afterId are skipped entirely
+            while (segmentIndex < this.segments.size() - 1 && this.segments.get(segmentIndex).maxId() <= afterId) {
+                segmentIndex++;
+            }
+            this.frameEnd = this.segments.isEmpty() ? 0 : this.segments.get(segmentIndex).seek(afterId);
+        }
+
+        boolean next() {
+            while (segmentIndex < segments.size()) {
+                var segment = segments.get(segmentIndex);
+                var limit = segmentIndex == segments.size() - 1 ? lastEnd : segment.end();
+                var end = segment.frameEnd(frameEnd, limit);
+                if (end > 0) {
+                    position = frameEnd;
+                    frameEnd = end;
+                    id = segment.frameId(position);
+                    return true;
+                }
+                segmentIndex++;
+                frameEnd = segmentIndex < segments.size() ? segments.get(segmentIndex).seek(afterId) : 0;
+            }
+            return false;
+        }
+
+        /**
+         * Steps back so that {@link #next()} returns the current frame again.
+         */
+        void rewind() {
+            frameEnd = position;
+        }
+
+        LogSegment segment() {
+            return segments.get(segmentIndex);
+        }
+
+        int position() {
+            return position;
+        }
+
+        int frameEnd() {
+            return frameEnd;
+        }
+
+        long id() {
+            return id;
+        }
+    }
+}
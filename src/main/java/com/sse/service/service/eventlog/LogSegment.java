@@ -0,0 +1,235 @@
+package com.sse.service.service.eventlog;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * One memory-mapped file of SSE frames stored back to back exactly as they are sent, so any run
+ * of consecutive frames can be handed to a connection as a slice of the mapping.
+ *
+ * <p>Frames are appended in publish order, which is not strictly id order under concurrent
+ * ingest. The sparse index therefore records, every {@code indexInterval} bytes, the highest id
+ * written before that position: a reader looking for ids above {@code afterId} can skip
+ * everything before the last entry not exceeding it and filter the rest.
+ *
+ * <p>Single writer, any number of readers; readers only look below {@link #end()}, which is
+ * published after the frame bytes.
+ */
+final class LogSegment {
+
+    private final long number;
+    private volatile Path path;
+    private final MappedByteBuffer buffer;
+    private final int indexInterval;
+
+    // appended by the writer, published to readers through indexSize
+    private long[] indexMaxIdBefore = new long[16];
+    private int[] indexPositions = new int[16];
+    private volatile int indexSize;
+
+    private volatile int end;
+    private volatile long maxId;
+    private volatile long minId = Long.MAX_VALUE;
+    private volatile long lastAppendedAt;
+    private int nextIndexPosition;
+
+    private LogSegment(long number, Path path, MappedByteBuffer buffer, int indexInterval, long previousMaxId) {
+        this.number = number;
+        this.path = path;
+        this.buffer = buffer;
+        this.indexInterval = indexInterval;
+        this.maxId = previousMaxId;
+    }
+
+    /**
+     * Maps a new, empty segment. Sizing and mapping the file is the slow part of a roll, so this
+     * is done ahead of time under a temporary name and {@link #activate activated} when needed.
+     */
+    static LogSegment create(Path path, long number, int capacity, int indexInterval) {
+        return new LogSegment(number, path, map(path, capacity), indexInterval, 0);
+    }
+
+    /**
+     * Maps an existing segment and rebuilds its index. A frame cut short by a crash ends the
+     * segment; the next append overwrites it.
+     */
+    static LogSegment open(Path path, long number, int indexInterval, long previousMaxId) {
+        try {
+            var segment = new LogSegment(number, path, map(path, (int) Files.size(path)), indexInterval, previousMaxId);
+            segment.lastAppendedAt = Files.getLastModifiedTime(path).toMillis();
+            var position = 0;
+            int frameEnd;
+            while ((frameEnd = segment.frameEnd(position, segment.capacity())) > 0) {
+                segment.indexed(segment.frameId(position), position, frameEnd - position);
+                position = frameEnd;
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open event log segment " + path, e);
+        }
+    }
+
+    /**
+     * Moves a created segment to its final name and makes it follow a segment ending at
+     * {@code previousMaxId}; a rename, so cheap enough for the writing thread.
+     */
+    void activate(Path target, long previousMaxId) {
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to activate event log segment " + target, e);
+        }
+        path = target;
+        maxId = previousMaxId;
+        lastAppendedAt = System.currentTimeMillis();
+    }
+
+    long number() {
+        return number;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    int end() {
+        return end;
+    }
+
+    /**
+     * Highest id in this and all earlier segments.
+     */
+    long maxId() {
+        return maxId;
+    }
+
+    long minId() {
+        return minId;
+    }
+
+    long lastAppendedAt() {
+        return lastAppendedAt;
+    }
+
+    /**
+     * @return false if the frame does not fit
+     */
+    boolean append(long id, byte[] frame) {
+        var position = end;
+        if (position + frame.length > capacity()) {
+            return false;
+        }
+        buffer.put(position, frame);
+        indexed(id, position, frame.length);
+        lastAppendedAt = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Position from which every frame with an id above {@code afterId} is found by scanning.
+     */
+    int seek(long afterId) {
+        var size = indexSize;
+        var maxIdsBefore = indexMaxIdBefore;
+        var found = Arrays.binarySearch(maxIdsBefore, 0, size, afterId);
+        int entry;
+        if (found >= 0) {
+            // several entries may share the value; the last one skips the most
+            while (found + 1 < size && maxIdsBefore[found + 1] == afterId) {
+                found++;
+            }
+            entry = found;
+        } else {
+            entry = -found - 2;
+        }
+        return entry < 0 ? 0 : indexPositions[entry];
+    }
+
+    /**
+     * @return the position just past the frame starting at {@code position}, or -1 if no complete
+     * frame starts there before {@code limit}
+     */
+    int frameEnd(int position, int limit) {
+        if (position + 3 > limit || buffer.get(position) != 'i') {
+            return -1;
+        }
+        for (int i = position + 3; i + 1 < limit; i++) {
+            if (buffer.get(i) == '\n' && buffer.get(i + 1) == '\n') {
+                return i + 2;
+            }
+        }
+        return -1;
+    }
+
+    long frameId(int position) {
+        long id = 0;
+        for (int i = position + 3; ; i++) {
+            var digit = buffer.get(i);
+            if (digit == '\n') {
+                return id;
+            }
+            id = id * 10 + (digit - '0');
+        }
+    }
+
+    /**
+     * A read-only view of the mapping; no bytes are copied.
+     */
+    ByteBuffer slice(int position, int length) {
+        return buffer.slice(position, length).asReadOnlyBuffer();
+    }
+
+    void read(int position, byte[] target) {
+        buffer.get(position, target);
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    /**
+     * The mapping stays valid for readers still holding slices until it is garbage collected.
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete event log segment " + path, e);
+        }
+    }
+
+    private void indexed(long id, int position, int length) {
+        if (position >= nextIndexPosition) {
+            if (indexSize == indexPositions.length) {
+                indexMaxIdBefore = Arrays.copyOf(indexMaxIdBefore, indexSize * 2);
+                indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+            }
+            indexMaxIdBefore[indexSize] = maxId;
+            indexPositions[indexSize] = position;
+            indexSize = indexSize + 1;
+            nextIndexPosition = position + indexInterval;
+        }
+        maxId = Math.max(maxId, id);
+        minId = Math.min(minId, id);
+        end = position + length;
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity) {
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < capacity) {
+                file.setLength(capacity);
+            }
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map event log segment " + path, e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sse.service.service.fanout;
+
+import com.sse.service.service.replay.ReplayBuffer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.concurrent.Queues;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One fan-out thread and the subscribers it owns. Publishers and (un)registrations only enqueue
+ * to its lock-free MPSC inbox; the indexes are touched by the shard thread alone, so they need
+ * no synchronisation, and events reach every subscriber of the shard in publish order.
+ */
+@Slf4j
+final class FanOutShard implements Runnable {
+
+    private final Queue<Object> inbox = Queues.unboundedMultiproducer().get();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean parked = new AtomicBoolean();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // owned by the shard thread
+    private final Map<String, Set<Subscription>> byUserId = new HashMap<>();
+    private final Map<String, Set<Subscription>> byCurrency = new HashMap<>();
+    private final Set<Subscription> unkeyed = new LinkedHashSet<>();
+    private volatile int subscribers;
+
+    FanOutShard(int index) {
+        this.thread = new Thread(this, "fanout-shard-" + index);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Skipped by publishers while empty; a registration enqueued before the event still sees it.
+     */
+    boolean hasSubscribers() {
+        return subscribers > 0 || pending.get() > 0;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    void dispatch(ReplayBuffer.Entry entry) {
+        enqueue(entry);
+    }
+
+    void register(Subscription subscription) {
+        enqueue(new Registration(subscription, true));
+    }
+
+    void unregister(Subscription subscription) {
+        enqueue(new Registration(subscription, false));
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            var next = inbox.poll();
+            if (next == null) {
+                parked.set(true);
+                // re-check after announcing the park, or an enqueue racing with it would be missed
+                if (inbox.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                parked.set(false);
+                continue;
+            }
+            try {
+                if (next instanceof ReplayBuffer.Entry entry) {
+                    deliver(entry);
+                } else {
+                    apply((Registration) next);
+                }
+            } catch (RuntimeException e) {
+                log.error("Fan-out shard failed to process {}", next, e);
+            } finally {
+                // only after a registration has been applied, see hasSubscribers
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void enqueue(Object item) {
+        pending.incrementAndGet();
+        inbox.offer(item);
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void deliver(ReplayBuffer.Entry entry) {
+        var transaction = entry.transaction();
+        deliver(candidates(byUserId, transaction.getUserId()), entry);
+        deliver(candidates(byCurrency, transaction.getCurrency()), entry);
+        deliver(unkeyed, entry);
+    }
+
+    private static void deliver(Set<Subscription> candidates, ReplayBuffer.Entry entry) {
+        if (candidates == null) {
+            return;
+        }
+        for (var subscription : candidates) {
+            if (subscription.filter().matches(entry.transaction())) {
+                subscription.offer(entry);
+            }
+        }
+    }
+
+    private void apply(Registration registration) {
+        var subscription = registration.subscription();
+        var filter = subscription.filter();
+        if (filter.userId() != null) {
+            update(byUserId, filter.userId(), subscription, registration.add());
+        } else if (filter.currency() != null) {
+            update(byCurrency, filter.currency(), subscription, registration.add());
+        } else if (registration.add()) {
+            unkeyed.add(subscription);
+        } else {
+            unkeyed.remove(subscription);
+        }
+        subscribers += registration.add() ? 1 : -1;
+    }
+
+    private static Set<Subscription> candidates(Map<String, Set<Subscription>> index, String key) {
+        return key == null ? null : index.get(key);
+    }
+
+    private static void update(Map<String, Set<Subscription>> index, String key, Subscription subscription,
+                               boolean add) {
+        if (add) {
+            index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(subscription);
+        } else {
+            index.computeIfPresent(key, (k, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+        }
+    }
+
+    private record Registration(Subscription subscription, boolean add) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.sse.service.service.fanout;
+
+public class SlowConsumerException extends RuntimeException {
+
+    public SlowConsumerException(String message) {
+        super(message);
+    }
+}
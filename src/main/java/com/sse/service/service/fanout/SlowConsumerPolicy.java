@@ -0,0 +1,36 @@
+package com.sse.service.service.fanout;
+
+import java.util.Locale;
+
+/**
+ * What a subscriber's queue does once its byte budget is exhausted.
+ */
+public enum SlowConsumerPolicy {
+
+    /**
+     * Keep everything until the budget is exceeded, then disconnect the subscriber.
+     */
+    DISCONNECT,
+
+    /**
+     * Evict the oldest queued events to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Reject the new event and keep what is queued.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Keep only the latest queued event per userId; evict the oldest key if still over budget.
+     */
+    CONFLATE_LATEST;
+
+    /**
+     * Accepts both {@code DROP_OLDEST} and {@code drop-oldest} spellings.
+     */
+    public static SlowConsumerPolicy parse(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,55 @@
+package com.sse.service.service.fanout;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-policy counters of enqueued and dropped events, forced disconnects and the largest queue
+ * seen in bytes, published through Micrometer as {@code sse.fanout.*} meters tagged by policy.
+ */
+@Component
+public class SlowConsumerStats {
+
+    private final Map<SlowConsumerPolicy, Counters> counters = new EnumMap<>(SlowConsumerPolicy.class);
+
+    public SlowConsumerStats() {
+        for (var policy : SlowConsumerPolicy.values()) {
+            counters.put(policy, new Counters());
+        }
+    }
+
+    void enqueued(SlowConsumerPolicy policy) {
+        counters.get(policy).enqueued.increment();
+    }
+
+    void dropped(SlowConsumerPolicy policy) {
+        counters.get(policy).dropped.increment();
+    }
+
+    void disconnected(SlowConsumerPolicy policy) {
+        counters.get(policy).disconnects.increment();
+    }
+
+    void buffered(SlowConsumerPolicy policy, long bytes) {
+        counters.get(policy).highWaterBytes.accumulateAndGet(bytes, Math::max);
+    }
+
+    public Snapshot snapshot(SlowConsumerPolicy policy) {
+        var c = counters.get(policy);
+        return new Snapshot(c.enqueued.sum(), c.dropped.sum(), c.disconnects.sum(), c.highWaterBytes.get());
+    }
+
+    public record Snapshot(long enqueued, long dropped, long disconnects, long highWaterBytes) {
+    }
+
+    private static final class Counters {
+        private final LongAdder enqueued = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder disconnects = new LongAdder();
+        private final AtomicLong highWaterBytes = new AtomicLong();
+    }
+}
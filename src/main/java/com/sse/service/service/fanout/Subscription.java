@@ -0,0 +1,174 @@
+package com.sse.service.service.fanout;
+
+import com.sse.service.service.replay.ReplayBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A live subscriber and its byte-bounded queue. {@link #offer} never blocks the publisher:
+ * once the budget is exhausted the subscriber's {@link SlowConsumerPolicy} decides what is
+ * dropped, or disconnects it.
+ */
+final class Subscription {
+
+    private final SubscriptionFilter filter;
+    private final SlowConsumerPolicy policy;
+    private final long maxBufferedBytes;
+    private final SlowConsumerStats stats;
+
+    // guarded by this; conflated is only used by CONFLATE_LATEST, queue by the other policies
+    private final ArrayDeque<ReplayBuffer.Entry> queue = new ArrayDeque<>();
+    private final LinkedHashMap<String, ReplayBuffer.Entry> conflated = new LinkedHashMap<>();
+    private long bufferedBytes;
+    private boolean terminated;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile FluxSink<ReplayBuffer.Entry> sink;
+
+    Subscription(SubscriptionFilter filter, SlowConsumerPolicy policy, long maxBufferedBytes, SlowConsumerStats stats) {
+        this.filter = filter;
+        this.policy = policy;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.stats = stats;
+    }
+
+    SubscriptionFilter filter() {
+        return filter;
+    }
+
+    synchronized long bufferedBytes() {
+        return bufferedBytes;
+    }
+
+    Flux<ReplayBuffer.Entry> flux() {
+        return Flux.create(sink -> {
+            this.sink = sink;
+            sink.onRequest(n -> drain());
+            sink.onDispose(this::clear);
+        });
+    }
+
+    void offer(ReplayBuffer.Entry entry) {
+        var size = sizeOf(entry);
+        boolean disconnect = false;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            switch (policy) {
+                case DISCONNECT -> {
+                    if (bufferedBytes + size > maxBufferedBytes) {
+                        terminated = true;
+                        disconnect = true;
+                    } else {
+                        enqueue(entry, size);
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!queue.isEmpty() && bufferedBytes + size > maxBufferedBytes) {
+                        bufferedBytes -= sizeOf(queue.poll());
+                        stats.dropped(policy);
+                    }
+                    enqueue(entry, size);
+                }
+                case DROP_NEWEST -> {
+                    if (bufferedBytes + size > maxBufferedBytes) {
+                        stats.dropped(policy);
+                    } else {
+                        enqueue(entry, size);
+                    }
+                }
+                case CONFLATE_LATEST -> conflate(entry, size);
+            }
+        }
+        if (disconnect) {
+            stats.disconnected(policy);
+            clear();
+            var current = sink;
+            if (current != null) {
+                current.error(new SlowConsumerException("Subscriber exceeded its buffer of " + maxBufferedBytes + " bytes"));
+            }
+            return;
+        }
+        drain();
+    }
+
+    private void enqueue(ReplayBuffer.Entry entry, long size) {
+        queue.offer(entry);
+        bufferedBytes += size;
+        stats.enqueued(policy);
+        stats.buffered(policy, bufferedBytes);
+    }
+
+    private void conflate(ReplayBuffer.Entry entry, long size) {
+        var replaced = conflated.put(entry.transaction().getUserId(), entry);
+        if (replaced != null) {
+            bufferedBytes -= sizeOf(replaced);
+            stats.dropped(policy);
+        }
+        bufferedBytes += size;
+        stats.enqueued(policy);
+        Iterator<ReplayBuffer.Entry> oldest = conflated.values().iterator();
+        while (bufferedBytes > maxBufferedBytes && conflated.size() > 1) {
+            bufferedBytes -= sizeOf(oldest.next());
+            oldest.remove();
+            stats.dropped(policy);
+        }
+        stats.buffered(policy, bufferedBytes);
+    }
+
+    private synchronized ReplayBuffer.Entry poll() {
+        ReplayBuffer.Entry next;
+        if (policy == SlowConsumerPolicy.CONFLATE_LATEST) {
+            var oldest = conflated.values().iterator();
+            if (!oldest.hasNext()) {
+                return null;
+            }
+            next = oldest.next();
+            oldest.remove();
+        } else {
+            next = queue.poll();
+            if (next == null) {
+                return null;
+            }
+        }
+        bufferedBytes -= sizeOf(next);
+        return next;
+    }
+
+    private synchronized void clear() {
+        terminated = true;
+        queue.clear();
+        conflated.clear();
+        bufferedBytes = 0;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        var missed = 1;
+        do {
+            var current = sink;
+            if (current != null) {
+                while (current.requestedFromDownstream() > 0 && !current.isCancelled()) {
+                    var next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    current.next(next);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private static long sizeOf(ReplayBuffer.Entry entry) {
+        return entry.frame().sse().length;
+    }
+}
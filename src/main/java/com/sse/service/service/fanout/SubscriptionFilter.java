@@ -0,0 +1,29 @@
+package com.sse.service.service.fanout;
+
+import com.sse.service.api.request.TransactionStreamRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * Server-side filter of a stream subscription. {@code userId} and {@code currency} are used as
+ * index keys by {@link SubscriptionRegistry}; the remaining fields are checked per candidate.
+ */
+public record SubscriptionFilter(String userId, String currency, String status,
+                                 BigDecimal minAmount, BigDecimal maxAmount) {
+
+    public static final SubscriptionFilter ALL = new SubscriptionFilter(null, null, null, null, null);
+
+    public static SubscriptionFilter from(TransactionStreamRequest request) {
+        return new SubscriptionFilter(request.getUserId(), request.getCurrency(), request.getStatus(),
+                request.getMinAmount(), request.getMaxAmount());
+    }
+
+    public boolean matches(TransactionsEntity transaction) {
+        return (userId == null || userId.equals(transaction.getUserId()))
+                && (currency == null || currency.equals(transaction.getCurrency()))
+                && (status == null || status.equals(transaction.getStatus()))
+                && (minAmount == null || minAmount.compareTo(transaction.getAmount()) <= 0)
+                && (maxAmount == null || maxAmount.compareTo(transaction.getAmount()) >= 0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.sse.service.service.fanout;
+
+import com.sse.service.config.properties.FanOutProperties;
+import com.sse.service.service.replay.ReplayBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live subscribers spread round-robin over a fixed set of {@link FanOutShard}s. Publishing an
+ * event is one lock-free enqueue per shard that has subscribers; each shard thread then visits
+ * only the subscribers registered under the event's userId and currency plus its unkeyed ones,
+ * so the cost scales with matching subscribers and spreads over the shards.
+ */
+@Slf4j
+@Component
+public class SubscriptionRegistry {
+
+    private final FanOutShard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    // every live subscription, for gauges; the shards keep their own indexes
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final FanOutProperties properties;
+    private final SlowConsumerStats slowConsumerStats;
+
+    public SubscriptionRegistry(FanOutProperties properties, SlowConsumerStats slowConsumerStats) {
+        this.properties = properties;
+        this.slowConsumerStats = slowConsumerStats;
+        var shardCount = properties.getShards() > 0 ? properties.getShards() : Runtime.getRuntime().availableProcessors();
+        this.shards = new FanOutShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new FanOutShard(i);
+        }
+        log.info("Fan-out runs on {} shards", shardCount);
+    }
+
+    /**
+     * Registers a subscriber on subscription and removes it when the returned flux terminates.
+     * Events dispatched after registration are queued until requested, not lost.
+     */
+    public Flux<ReplayBuffer.Entry> subscribe(SubscriptionFilter filter, SlowConsumerPolicy policy) {
+        return Flux.defer(() -> {
+            var subscription = new Subscription(filter, policy, properties.getMaxBufferedBytes().toBytes(),
+                    slowConsumerStats);
+            var shard = shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+            subscriptions.add(subscription);
+            shard.register(subscription);
+            return subscription.flux()
+                    .doFinally(signal -> {
+                        subscriptions.remove(subscription);
+                        shard.unregister(subscription);
+                    });
+        });
+    }
+
+    public void dispatch(ReplayBuffer.Entry entry) {
+        for (var shard : shards) {
+            if (shard.hasSubscribers()) {
+                shard.dispatch(entry);
+            }
+        }
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Events and registrations enqueued to the shards but not yet processed.
+     */
+    public int pendingDispatches() {
+        return Arrays.stream(shards).mapToInt(FanOutShard::pending).sum();
+    }
+
+    /**
+     * Bytes currently queued per subscriber, for queue-depth gauges. Walks every subscription,
+     * so it is meant for metric scrapes, not the publish path.
+     */
+    public LongSummaryStatistics queuedBytes() {
+        var statistics = new LongSummaryStatistics();
+        subscriptions.forEach(subscription -> statistics.accept(subscription.bufferedBytes()));
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Arrays.stream(shards).forEach(FanOutShard::shutdown);
+    }
+}
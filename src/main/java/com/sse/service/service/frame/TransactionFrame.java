@@ -0,0 +1,52 @@
+package com.sse.service.service.frame;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+
+import java.util.function.Function;
+
+/**
+ * A transaction together with its complete, pre-rendered SSE frame ({@code id:}/{@code data:}
+ * lines and the terminating blank line). Other encodings are rendered on first use and cached,
+ * so each is produced at most once per transaction however many subscribers ask for it. Frames
+ * are shared by every subscriber and must be treated as read-only.
+ */
+public final class TransactionFrame {
+
+    private final TransactionsEntity transaction;
+    private final byte[] sse;
+
+    // racy but idempotent caches: concurrent first uses may both render, either result is kept
+    private volatile byte[] ndjson;
+    private volatile byte[] smile;
+
+    public TransactionFrame(TransactionsEntity transaction, byte[] sse) {
+        this.transaction = transaction;
+        this.sse = sse;
+    }
+
+    public TransactionsEntity transaction() {
+        return transaction;
+    }
+
+    public byte[] sse() {
+        return sse;
+    }
+
+    byte[] ndjson(Function<TransactionFrame, byte[]> renderer) {
+        var rendered = ndjson;
+        if (rendered == null) {
+            rendered = renderer.apply(this);
+            ndjson = rendered;
+        }
+        return rendered;
+    }
+
+    byte[] smile(Function<TransactionFrame, byte[]> renderer) {
+        var rendered = smile;
+        if (rendered == null) {
+            rendered = renderer.apply(this);
+            smile = rendered;
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sse.service.service.frame;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.stream.StreamEncoding;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Renders a transaction into an SSE frame exactly once, so fan-out cost no longer depends on
+ * the number of subscribers.
+ */
+@Component
+public class TransactionFrameEncoder {
+
+    private static final byte[] ID = "id:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATA = "\ndata:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectWriter writer;
+    private final ObjectWriter smileWriter;
+
+    public TransactionFrameEncoder(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(TransactionsEntity.class);
+        this.smileWriter = objectMapper.copyWith(new SmileFactory()).writerFor(TransactionsEntity.class);
+    }
+
+    public TransactionFrame encode(TransactionsEntity transaction) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(transaction);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode transaction " + transaction.getId(), e);
+        }
+        var id = String.valueOf(transaction.getId()).getBytes(StandardCharsets.US_ASCII);
+        var frame = new byte[ID.length + id.length + DATA.length + json.length + END.length];
+        var offset = 0;
+        for (var part : new byte[][]{ID, id, DATA, json, END}) {
+            System.arraycopy(part, 0, frame, offset, part.length);
+            offset += part.length;
+        }
+        return new TransactionFrame(transaction, frame);
+    }
+
+    /**
+     * The frame in the given encoding; anything but SSE is rendered on first use and cached.
+     */
+    public byte[] render(TransactionFrame frame, StreamEncoding encoding) {
+        return switch (encoding) {
+            case SSE -> frame.sse();
+            case NDJSON -> frame.ndjson(this::renderNdjson);
+            case SMILE -> frame.smile(this::renderSmile);
+        };
+    }
+
+    /**
+     * One frame carrying all of the given ones. NDJSON and Smile documents delimit themselves,
+     * so their batches are the frames back to back.
+     */
+    public byte[] renderBatch(List<TransactionFrame> frames, StreamEncoding encoding) {
+        if (encoding == StreamEncoding.SSE) {
+            return sseBatch(frames);
+        }
+        var batch = new ByteArrayOutputStream(frames.size() * 256);
+        frames.forEach(frame -> batch.writeBytes(render(frame, encoding)));
+        return batch.toByteArray();
+    }
+
+    /**
+     * Joins already rendered frames into one frame whose data is a JSON array and whose id is
+     * that of the last transaction, so resuming from it skips the whole batch. The JSON of each
+     * frame is copied out as is, not re-encoded.
+     */
+    private byte[] sseBatch(List<TransactionFrame> frames) {
+        var last = frames.get(frames.size() - 1).transaction();
+        var id = String.valueOf(last.getId()).getBytes(StandardCharsets.US_ASCII);
+        var length = ID.length + id.length + DATA.length + 2 + END.length + frames.size() - 1;
+        for (var frame : frames) {
+            length += jsonLength(frame);
+        }
+
+        var batch = new byte[length];
+        var offset = copy(ID, batch, 0);
+        offset = copy(id, batch, offset);
+        offset = copy(DATA, batch, offset);
+        batch[offset++] = '[';
+        for (int i = 0; i < frames.size(); i++) {
+            if (i > 0) {
+                batch[offset++] = ',';
+            }
+            var frame = frames.get(i);
+            var jsonLength = jsonLength(frame);
+            System.arraycopy(frame.sse(), frame.sse().length - END.length - jsonLength, batch, offset, jsonLength);
+            offset += jsonLength;
+        }
+        batch[offset++] = ']';
+        copy(END, batch, offset);
+        return batch;
+    }
+
+    private byte[] renderNdjson(TransactionFrame frame) {
+        var jsonLength = jsonLength(frame);
+        var line = new byte[jsonLength + 1];
+        System.arraycopy(frame.sse(), frame.sse().length - END.length - jsonLength, line, 0, jsonLength);
+        line[jsonLength] = '\n';
+        return line;
+    }
+
+    private byte[] renderSmile(TransactionFrame frame) {
+        try {
+            return smileWriter.writeValueAsBytes(frame.transaction());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode transaction " + frame.transaction().getId(), e);
+        }
+    }
+
+    private static int jsonLength(TransactionFrame frame) {
+        var idLength = String.valueOf(frame.transaction().getId()).length();
+        return frame.sse().length - ID.length - idLength - DATA.length - END.length;
+    }
+
+    private static int copy(byte[] source, byte[] target, int offset) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sse.service.service.history;
+
+import com.sse.service.config.properties.HistoryProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps monthly {@code transactions} and {@code transaction_ids} partitions ahead of the clock
+ * and, when retention is configured, drops whole partitions that fell out of it instead of
+ * deleting their rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionMaintainer {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("transactions_p(\\d{4})_(\\d{2})");
+    /**
+     * Creates the partitions of both tables starting at the given date unless they exist. Rows of
+     * that month that already landed in a default partition would make a plain
+     * {@code PARTITION OF} fail, so each partition is created detached, those rows are moved into
+     * it and it is attached, all in one transaction. Instances serialise on an advisory lock.
+     */
+    private static final String CREATE_PARTITION = """
+            DO $$
+                DECLARE
+                    partition_start date := '%s';
+                    partition_end   date := partition_start + interval '1 month';
+                    parent          text;
+                    partition_name  text;
+                BEGIN
+                    PERFORM pg_advisory_xact_lock(hashtext('transactions_partitions'));
+                    FOREACH parent IN ARRAY ARRAY['transactions', 'transaction_ids'] LOOP
+                        partition_name := parent || '_p' || to_char(partition_start, 'YYYY_MM');
+                        CONTINUE WHEN to_regclass(partition_name) IS NOT NULL;
+                        EXECUTE format('CREATE TABLE %%I (LIKE %%I)', partition_name, parent);
+                        EXECUTE format('WITH moved AS (DELETE FROM %%I WHERE created_at >= %%L AND created_at < %%L RETURNING *) '
+                                       || 'INSERT INTO %%I SELECT * FROM moved',
+                                       parent || '_default', partition_start, partition_end, partition_name);
+                        EXECUTE format('ALTER TABLE %%I ATTACH PARTITION %%I FOR VALUES FROM (%%L) TO (%%L)',
+                                       parent, partition_name, partition_start, partition_end);
+                    END LOOP;
+                END
+            $$""";
+    private static final String LIST_PARTITIONS = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'transactions'::regclass";
+
+    private final DatabaseClient databaseClient;
+    private final HistoryProperties properties;
+
+    private volatile Disposable maintenance;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        maintenance = Flux.interval(Duration.ZERO, properties.getMaintenanceInterval())
+                .concatMap(tick -> maintain()
+                        .onErrorResume(e -> {
+                            log.error("Partition maintenance failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (maintenance != null) {
+            maintenance.dispose();
+        }
+    }
+
+    public Mono<Void> maintain() {
+        var currentMonth = YearMonth.now();
+        return createPartitions(currentMonth)
+                .then(properties.getRetentionMonths() > 0
+                        ? dropPartitionsBefore(currentMonth.minusMonths(properties.getRetentionMonths()))
+                        : Mono.empty());
+    }
+
+    private Mono<Void> createPartitions(YearMonth currentMonth) {
+        return Flux.range(0, properties.getPartitionsAhead() + 1)
+                .map(currentMonth::plusMonths)
+                .concatMap(month -> databaseClient.sql(CREATE_PARTITION.formatted(month.atDay(1))).then())
+                .then();
+    }
+
+    private Mono<Void> dropPartitionsBefore(YearMonth cutoff) {
+        var expired = databaseClient.sql(LIST_PARTITIONS)
+                .map(row -> row.get("relname", String.class))
+                .all()
+                .filter(name -> {
+                    var matcher = PARTITION_NAME.matcher(name);
+                    return matcher.matches()
+                            && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                            .isBefore(cutoff);
+                })
+                // only names matching PARTITION_NAME get here, so they need no quoting; a month's
+                // transactions and their ids are dropped in one statement, so neither outlives the other
+                .concatMap(name -> databaseClient.sql("DROP TABLE IF EXISTS " + name + ", "
+                                + name.replace("transactions_p", "transaction_ids_p"))
+                        .then()
+                        .doOnSuccess(it -> log.info("Dropped expired partition {} with its ids", name)));
+        return expired.then();
+    }
+}
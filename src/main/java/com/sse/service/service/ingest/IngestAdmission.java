@@ -0,0 +1,202 @@
+package com.sse.service.service.ingest;
+
+import com.sse.service.config.properties.IngestProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for saves, checked before the database is touched: a token bucket per
+ * {@code userId} and a cap on saves in flight across all users. A single-transaction save holds
+ * one in-flight slot; a batch chunk holds one for its insert and takes a token per row.
+ *
+ * <p>Buckets live in a fixed number of stripes, each guarded by its own monitor, so producers
+ * only contend when their ids hash to the same stripe. The limits start out as configured in
+ * {@link IngestProperties.RateLimit}; an update replaces them as one immutable {@link Limits},
+ * so a call sees either all of the old values or all of the new ones.
+ */
+@Component
+public class IngestAdmission {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedUsers = new LongAdder();
+    private final LongAdder rejectedInFlight = new LongAdder();
+
+    private volatile Limits limits;
+
+    public IngestAdmission(IngestProperties properties) {
+        this.limits = Limits.of(properties.getRateLimit());
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @param userId the transaction's userId, or {@code null} to only apply the in-flight limit
+     * @throws IngestRejectedException when the user is over its rate or too many saves are in flight
+     */
+    public Permit acquire(String userId) {
+        var limits = this.limits;
+        if (!limits.enabled()) {
+            return Permit.UNLIMITED;
+        }
+        if (inFlight.incrementAndGet() > limits.maxInFlightSaves()) {
+            inFlight.decrementAndGet();
+            rejectedInFlight.increment();
+            throw new IngestRejectedException(limits.retryAfter(), "Too many transactions in flight");
+        }
+        if (userId != null) {
+            try {
+                takeToken(userId, limits);
+            } catch (IngestRejectedException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+        return new Permit(inFlight);
+    }
+
+    /**
+     * Takes one token from the user's bucket without holding an in-flight slot, for a row of a
+     * batch whose chunk already holds one.
+     *
+     * @throws IngestRejectedException when the user is over its rate
+     */
+    public void throttle(String userId) {
+        var limits = this.limits;
+        if (limits.enabled() && userId != null) {
+            takeToken(userId, limits);
+        }
+    }
+
+    public Limits limits() {
+        return limits;
+    }
+
+    /**
+     * Replaces the limits in force; {@code null} keeps the current value. Not persisted, so a
+     * restart goes back to the configuration.
+     */
+    public synchronized Limits update(Boolean enabled, Double permitsPerSecond, Integer burst,
+                                      Integer maxInFlightSaves, Duration retryAfter) {
+        var current = limits;
+        limits = new Limits(
+                enabled != null ? enabled : current.enabled(),
+                permitsPerSecond != null ? permitsPerSecond : current.permitsPerSecond(),
+                burst != null ? burst : current.burst(),
+                maxInFlightSaves != null ? maxInFlightSaves : current.maxInFlightSaves(),
+                retryAfter != null ? retryAfter : current.retryAfter(),
+                current.maxTrackedUsers());
+        return limits;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejectedUsers() {
+        return rejectedUsers.sum();
+    }
+
+    public long rejectedInFlight() {
+        return rejectedInFlight.sum();
+    }
+
+    private void takeToken(String userId, Limits limits) {
+        var waitNanos = stripe(userId).tryAcquire(userId, limits, System.nanoTime());
+        if (waitNanos > 0) {
+            rejectedUsers.increment();
+            throw new IngestRejectedException(Duration.ofNanos(waitNanos),
+                    "Transaction rate limit reached for user " + userId);
+        }
+    }
+
+    private Stripe stripe(String userId) {
+        var hash = userId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    public record Limits(boolean enabled, double permitsPerSecond, int burst, int maxInFlightSaves,
+                         Duration retryAfter, int maxTrackedUsers) {
+
+        static Limits of(IngestProperties.RateLimit rateLimit) {
+            return new Limits(rateLimit.isEnabled(), rateLimit.getPermitsPerSecond(), rateLimit.getBurst(),
+                    rateLimit.getMaxInFlightSaves(), rateLimit.getRetryAfter(), rateLimit.getMaxTrackedUsers());
+        }
+    }
+
+    public static final class Permit {
+
+        static final Permit UNLIMITED = new Permit(null);
+
+        private final AtomicInteger inFlight;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AtomicInteger inFlight) {
+            this.inFlight = inFlight;
+        }
+
+        public void release() {
+            if (inFlight != null && released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Stripe {
+
+        // access order, so the least recently active user is evicted first
+        private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanos until the next one is available
+         */
+        synchronized long tryAcquire(String userId, Limits limits, long now) {
+            var bucket = buckets.get(userId);
+            if (bucket == null) {
+                bucket = new Bucket(limits.burst(), now);
+                buckets.put(userId, bucket);
+                var maxSize = Math.max(1, limits.maxTrackedUsers() / STRIPES);
+                var eldest = buckets.keySet().iterator();
+                while (buckets.size() > maxSize) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            return bucket.tryAcquire(limits.permitsPerSecond(), limits.burst(), now);
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        long tryAcquire(double permitsPerSecond, int burst, long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            if (permitsPerSecond <= 0) {
+                return TimeUnit.SECONDS.toNanos(1);
+            }
+            return Math.max(1, (long) ((1 - tokens) / permitsPerSecond * TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sse.service.service.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reads and changes the ingest limits at runtime; {@link IngestAdmission} applies the new values
+ * from its next call. Changes are not persisted and are lost on restart.
+ *
+ * <p>Not exposed over HTTP by default, since anyone who can reach it could lift the limits. To
+ * use it, add {@code ingestlimits} to {@code management.endpoints.web.exposure.include} behind a
+ * separate {@code management.server.port} or authentication, or use JMX.
+ */
+@Component
+@Endpoint(id = "ingestlimits")
+@RequiredArgsConstructor
+public class IngestLimitsEndpoint {
+
+    private final IngestAdmission ingestAdmission;
+
+    @ReadOperation
+    public IngestAdmission.Limits limits() {
+        return ingestAdmission.limits();
+    }
+
+    @WriteOperation
+    public IngestAdmission.Limits update(@Nullable Boolean enabled, @Nullable Double permitsPerSecond,
+                                         @Nullable Integer burst, @Nullable Integer maxInFlightSaves,
+                                         @Nullable Duration retryAfter) {
+        return ingestAdmission.update(enabled, permitsPerSecond, burst, maxInFlightSaves, retryAfter);
+    }
+}
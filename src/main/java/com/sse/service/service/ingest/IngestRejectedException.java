@@ -0,0 +1,16 @@
+package com.sse.service.service.ingest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class IngestRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public IngestRejectedException(Duration retryAfter, String message) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
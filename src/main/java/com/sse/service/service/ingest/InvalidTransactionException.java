@@ -0,0 +1,8 @@
+package com.sse.service.service.ingest;
+
+public class InvalidTransactionException extends IllegalArgumentException {
+
+    public InvalidTransactionException(String message) {
+        super(message);
+    }
+}
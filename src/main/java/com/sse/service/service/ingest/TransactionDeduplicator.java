@@ -0,0 +1,44 @@
+package com.sse.service.service.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sse.service.config.properties.IngestProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Bounded, time-expiring memory of recently ingested transaction ids. It rejects most producer
+ * retries without a database round trip; anything older than the cache is still caught by the
+ * {@code transaction_ids} claim of the insert.
+ */
+@Component
+public class TransactionDeduplicator {
+
+    private final Cache<UUID, Boolean> seen;
+
+    public TransactionDeduplicator(IngestProperties properties) {
+        var dedup = properties.getDedup();
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(dedup.getMaxSize())
+                .expireAfterWrite(dedup.getTtl())
+                .build();
+    }
+
+    /**
+     * @return {@code true} if the id has not been seen recently and is now claimed by the caller
+     */
+    public boolean tryAcquire(UUID transactionId) {
+        // a missing id cannot be deduplicated here; the insert rejects it
+        return transactionId == null || seen.asMap().putIfAbsent(transactionId, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Forgets an id whose save failed, so that a retry of it is not mistaken for a duplicate.
+     */
+    public void release(UUID transactionId) {
+        if (transactionId != null) {
+            seen.invalidate(transactionId);
+        }
+    }
+}
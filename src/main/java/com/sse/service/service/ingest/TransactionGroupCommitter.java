@@ -0,0 +1,100 @@
+package com.sse.service.service.ingest;
+
+import com.sse.service.config.properties.IngestProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.persistent.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gathers concurrent single-row saves into one multi-row INSERT per time/size window.
+ * Every caller still gets its own saved entity back, or empty for a duplicate
+ * {@code transaction_id}; if a batch fails, its rows are re-inserted one by one so that
+ * only the offending rows fail.
+ *
+ * <p>Writes waiting for or inside a batch are capped; beyond that a save fails straight away
+ * with {@link IngestRejectedException} instead of queueing without limit under overload.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sse.ingest.group-commit", name = "enabled", havingValue = "true")
+public class TransactionGroupCommitter {
+
+    private final TransactionRepository transactionRepository;
+    private final IngestProperties properties;
+    private final IngestAdmission ingestAdmission;
+    private final Disposable pipeline;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private volatile FluxSink<PendingWrite> pendingWrites;
+
+    public TransactionGroupCommitter(TransactionRepository transactionRepository, IngestProperties properties,
+                                     IngestAdmission ingestAdmission) {
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.ingestAdmission = ingestAdmission;
+        var groupCommit = properties.getGroupCommit();
+        this.pipeline = Flux.<PendingWrite>create(sink -> this.pendingWrites = sink)
+                .bufferTimeout(groupCommit.getMaxBatchSize(), groupCommit.getWindow(), true)
+                .flatMap(this::commit, groupCommit.getMaxInFlightBatches())
+                .subscribe();
+    }
+
+    /**
+     * @return the saved entity, empty for a duplicate, or an {@link IngestRejectedException} if
+     * too many writes are already queued
+     */
+    public Mono<TransactionsEntity> save(TransactionsEntity entity) {
+        return Mono.create(result -> {
+            if (queued.incrementAndGet() > properties.getGroupCommit().getMaxQueuedWrites()) {
+                queued.decrementAndGet();
+                result.error(new IngestRejectedException(ingestAdmission.limits().retryAfter(),
+                        "Too many transactions queued for group commit"));
+                return;
+            }
+            pendingWrites.next(new PendingWrite(entity, result));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pendingWrites.complete();
+        pipeline.dispose();
+    }
+
+    private Mono<Void> commit(List<PendingWrite> batch) {
+        var entities = batch.stream().map(PendingWrite::entity).toList();
+        return transactionRepository.insertAll(entities)
+                .then(Mono.<Void>fromRunnable(() -> batch.forEach(PendingWrite::complete)))
+                .onErrorResume(e -> {
+                    log.warn("Group commit of {} transactions failed, isolating rows", batch.size(), e);
+                    return Flux.fromIterable(batch)
+                            .concatMap(write -> transactionRepository.insert(write.entity())
+                                    .doOnSuccess(write.result()::success)
+                                    .doOnError(write.result()::error)
+                                    .onErrorResume(rowError -> Mono.empty()))
+                            .then();
+                })
+                .doFinally(signal -> queued.addAndGet(-batch.size()));
+    }
+
+    private record PendingWrite(TransactionsEntity entity, MonoSink<TransactionsEntity> result) {
+
+        /**
+         * Completes with the saved entity, or empty if it was skipped as a duplicate.
+         */
+        void complete() {
+            result.success(entity.getId() == null ? null : entity);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.sse.service.service.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sse.service.config.properties.IngestProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Decodes a single-transaction ingest body straight into a {@link TransactionsEntity} with
+ * Jackson's streaming parser, without an intermediate request object, and validates it with the
+ * {@link TransactionValidator} shared by every ingest path.
+ *
+ * <p>Unknown fields are skipped, as they are by the application's {@link ObjectMapper}.
+ */
+@Component
+public class TransactionRequestDecoder {
+
+    private final JsonFactory jsonFactory;
+    private final IngestProperties properties;
+    private final TransactionValidator validator;
+
+    public TransactionRequestDecoder(ObjectMapper objectMapper, IngestProperties properties,
+                                     TransactionValidator validator) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.properties = properties;
+        this.validator = validator;
+    }
+
+    /**
+     * @return the entity, or an {@link InvalidTransactionException} naming the first invalid field
+     */
+    public Mono<TransactionsEntity> decode(Flux<DataBuffer> body) {
+        return DataBufferUtils.join(body, (int) properties.getMaxRequestSize().toBytes())
+                .map(buffer -> {
+                    try {
+                        return decode(buffer);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .switchIfEmpty(Mono.error(() -> new InvalidTransactionException("Request body is missing")));
+    }
+
+    TransactionsEntity decode(DataBuffer buffer) {
+        try (var parser = jsonFactory.createParser(buffer.asInputStream())) {
+            var transaction = read(parser);
+            validator.validate(transaction);
+            return transaction;
+        } catch (JsonProcessingException e) {
+            throw new InvalidTransactionException("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TransactionsEntity read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new InvalidTransactionException("Request body must be a JSON object");
+        }
+        var transaction = new TransactionsEntity();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            var token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> transaction.setTransactionId(uuid(parser, token));
+                case "status" -> transaction.setStatus(text(parser, token, field));
+                case "userId" -> transaction.setUserId(text(parser, token, field));
+                case "amount" -> transaction.setAmount(amount(parser, token));
+                case "currency" -> transaction.setCurrency(text(parser, token, field));
+                case "description" -> transaction.setDescription(text(parser, token, field));
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new InvalidTransactionException("Request body must be a JSON object");
+        }
+        return transaction;
+    }
+
+    private static UUID uuid(JsonParser parser, JsonToken token) throws IOException {
+        var text = text(parser, token, "id");
+        // UUID.fromString accepts shortened groups such as 1-1-1-1-1
+        if (text.length() != 36) {
+            throw new InvalidTransactionException("id must be a UUID");
+        }
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTransactionException("id must be a UUID");
+        }
+    }
+
+    private static BigDecimal amount(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        try {
+            return new BigDecimal(text(parser, token, "amount"));
+        } catch (NumberFormatException e) {
+            throw new InvalidTransactionException("amount must be a number");
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            throw new InvalidTransactionException(field + " must be a string");
+        }
+        return parser.getText();
+    }
+}
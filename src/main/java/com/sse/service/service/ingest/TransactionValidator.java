@@ -0,0 +1,74 @@
+package com.sse.service.service.ingest;
+
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Currency;
+
+/**
+ * Checks a transaction against the column constraints, so that bad input is rejected before any
+ * database work. Every ingest path applies it, whatever format the transaction arrived in.
+ */
+@Component
+public class TransactionValidator {
+
+    // VARCHAR(255) columns
+    private static final int MAX_TEXT_LENGTH = 255;
+    // DECIMAL(19, 2)
+    private static final int MAX_AMOUNT_SCALE = 2;
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 17;
+
+    /**
+     * @throws InvalidTransactionException naming the first invalid field
+     */
+    public void validate(TransactionsEntity transaction) {
+        if (transaction.getTransactionId() == null) {
+            throw new InvalidTransactionException("id is required");
+        }
+        requireText(transaction.getStatus(), "status");
+        requireText(transaction.getUserId(), "userId");
+        requireText(transaction.getDescription(), "description");
+
+        var amount = transaction.getAmount();
+        if (amount == null) {
+            throw new InvalidTransactionException("amount is required");
+        }
+        if (amount.signum() <= 0) {
+            throw new InvalidTransactionException("amount must be positive");
+        }
+        var significant = amount.stripTrailingZeros();
+        if (significant.scale() > MAX_AMOUNT_SCALE) {
+            throw new InvalidTransactionException("amount must have at most " + MAX_AMOUNT_SCALE + " decimal places");
+        }
+        if (significant.precision() - significant.scale() > MAX_AMOUNT_INTEGER_DIGITS) {
+            throw new InvalidTransactionException("amount is too large");
+        }
+
+        var currency = transaction.getCurrency();
+        requireText(currency, "currency");
+        if (!isIsoCurrency(currency)) {
+            throw new InvalidTransactionException("currency must be an ISO 4217 code");
+        }
+    }
+
+    private static void requireText(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidTransactionException(field + " is required");
+        }
+        if (value.length() > MAX_TEXT_LENGTH && value.codePointCount(0, value.length()) > MAX_TEXT_LENGTH) {
+            throw new InvalidTransactionException(field + " must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private static boolean isIsoCurrency(String code) {
+        if (code.length() != 3) {
+            return false;
+        }
+        try {
+            // also rejects lower case, which the ISO list does not contain
+            return Currency.getInstance(code).getCurrencyCode().equals(code);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
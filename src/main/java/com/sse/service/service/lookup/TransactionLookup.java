@@ -0,0 +1,57 @@
+package com.sse.service.service.lookup;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sse.service.config.properties.LookupProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.persistent.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transactions by {@code transactionId} for clients polling a status. Saves are written through,
+ * so a poll for a recent transaction never reaches Postgres; a miss loads the row by the indexed
+ * side table, and concurrent misses for the same id share that one query. Unknown ids are not
+ * cached, since the transaction may still arrive.
+ *
+ * <p>Rows are never updated after insert, so entries only leave by size or age. Hits, misses
+ * and evictions are published as the {@code cache.*} meters of the {@value #CACHE_NAME} cache.
+ */
+@Component
+public class TransactionLookup {
+
+    public static final String CACHE_NAME = "transactions";
+
+    private final TransactionRepository transactionRepository;
+    private final AsyncCache<UUID, TransactionsEntity> cache;
+
+    public TransactionLookup(TransactionRepository transactionRepository, LookupProperties properties,
+                             MeterRegistry registry) {
+        this.transactionRepository = transactionRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), CACHE_NAME);
+    }
+
+    public Mono<TransactionsEntity> find(UUID transactionId) {
+        // a poller giving up must not cancel the load other pollers are waiting on
+        return Mono.fromFuture(() -> cache.get(transactionId, (id, executor) -> load(id)), true);
+    }
+
+    public void put(TransactionsEntity transaction) {
+        cache.put(transaction.getTransactionId(), CompletableFuture.completedFuture(transaction));
+    }
+
+    private CompletableFuture<TransactionsEntity> load(UUID transactionId) {
+        // completes with null when the id is unknown, which Caffeine does not keep
+        return transactionRepository.findByTransactionId(transactionId).toFuture();
+    }
+}
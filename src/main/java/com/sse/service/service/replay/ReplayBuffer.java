@@ -0,0 +1,100 @@
+package com.sse.service.service.replay;
+
+import com.sse.service.config.properties.ReplayProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.frame.TransactionFrame;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recently published transactions, bounded by count and age.
+ * Every appended event gets a local sequence number so that subscribers can tell whether a
+ * live event was already part of the snapshot they replayed.
+ *
+ * <p>Concurrent saves are published out of id order, and the ring evicts in publish order, so
+ * the lowest id still in the ring says nothing about which lower ids are gone. The ring instead
+ * tracks the highest id that has left it (or was published before its first entry); replays
+ * read everything up to that id from storage.
+ */
+@Component
+public class ReplayBuffer {
+
+    private final Entry[] ring;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    private long nextSequence = 1;
+    private int head;
+    private int size;
+    private long maxEvictedId;
+    private boolean appended;
+
+    public ReplayBuffer(ReplayProperties properties) {
+        this.ring = new Entry[properties.getCapacity()];
+        this.maxAge = properties.getMaxAge();
+        this.clock = Clock.systemUTC();
+    }
+
+    public synchronized Entry append(TransactionFrame frame) {
+        var now = clock.instant();
+        evictExpired(now);
+        var entry = new Entry(nextSequence++, frame, now);
+        var id = frame.transaction().getId();
+        if (!appended) {
+            // everything published before this instance's first entry lives in storage only
+            maxEvictedId = id - 1;
+            appended = true;
+        }
+        if (size == ring.length) {
+            evictHead();
+        }
+        ring[(head + size) % ring.length] = entry;
+        size++;
+        return entry;
+    }
+
+    public synchronized Snapshot snapshot() {
+        evictExpired(clock.instant());
+        var entries = new ArrayList<Entry>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(ring[(head + i) % ring.length]);
+        }
+        return new Snapshot(entries, appended ? maxEvictedId : Long.MAX_VALUE, nextSequence - 1);
+    }
+
+    private void evictExpired(Instant now) {
+        var threshold = now.minus(maxAge);
+        while (size > 0 && ring[head].appendedAt().isBefore(threshold)) {
+            evictHead();
+        }
+    }
+
+    private void evictHead() {
+        maxEvictedId = Math.max(maxEvictedId, ring[head].transaction().getId());
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        size--;
+    }
+
+    public record Entry(long sequence, TransactionFrame frame, Instant appendedAt) {
+
+        public TransactionsEntity transaction() {
+            return frame.transaction();
+        }
+    }
+
+    /**
+     * Point-in-time copy of the ring. {@code lastSequence} is the highest sequence ever appended
+     * at the moment of the copy, so any live entry above it is guaranteed not to be in the snapshot.
+     *
+     * @param evictedUpToId ids at or below this may be missing from the ring and are read from
+     *                      storage; {@link Long#MAX_VALUE} until the ring has held anything
+     */
+    public record Snapshot(List<Entry> entries, long evictedUpToId, long lastSequence) {
+    }
+}
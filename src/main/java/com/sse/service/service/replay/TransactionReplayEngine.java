@@ -0,0 +1,220 @@
+package com.sse.service.service.replay;
+
+import com.sse.service.config.properties.ReplayProperties;
+import com.sse.service.metrics.TransactionMetrics;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.persistent.repository.TransactionRepository;
+import com.sse.service.service.eventlog.EventLog;
+import com.sse.service.service.fanout.SlowConsumerException;
+import com.sse.service.service.fanout.SubscriptionFilter;
+import com.sse.service.service.frame.TransactionFrame;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Replays transactions to a subscriber in tiers: keyset pages from Postgres for anything older
+ * than the event log, then the event log for anything older than the ring, then the in-memory
+ * ring snapshot, then live events. Without an event log Postgres serves everything older than
+ * the ring.
+ *
+ * <p>The storage tiers cover every id up to the highest one that has left the ring, and the ring
+ * tier only what lies above it, so out-of-order publishes are neither skipped nor repeated.
+ *
+ * <p>The subscriber attaches to the live feed before the ring snapshot is taken, so nothing
+ * published in between is lost; live entries already covered by the snapshot are recognised
+ * by their ring sequence, and those already read from storage by their id, and skipped.
+ *
+ * <p>Live events published during catch-up wait in the subscription's own byte-bounded queue,
+ * so its {@link com.sse.service.service.fanout.SlowConsumerPolicy} applies from the start; once
+ * the live tier is reached the downstream's demand is passed straight through to it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionReplayEngine {
+
+    private final ReplayBuffer replayBuffer;
+    private final TransactionRepository transactionRepository;
+    private final ReplayProperties properties;
+    private final TransactionFrameEncoder frameEncoder;
+    private final TransactionMetrics metrics;
+    private final Optional<EventLog> eventLog;
+
+    /**
+     * @param live   live entries for this subscriber, already restricted to {@code filter}
+     * @param filter applied to the database, event log and ring tiers
+     */
+    public Flux<TransactionFrame> replay(Flux<ReplayBuffer.Entry> live, long afterId, SubscriptionFilter filter) {
+        return Flux.defer(() -> {
+            // registers the subscriber now, before the snapshot, but requests nothing yet
+            var pending = new DeferredLive();
+            live.subscribe(pending);
+
+            var snapshot = replayBuffer.snapshot();
+            var storageUpToId = snapshot.evictedUpToId();
+            var storageBeforeId = storageUpToId == Long.MAX_VALUE ? Long.MAX_VALUE : storageUpToId + 1;
+            var replayed = new StoredIds(properties.getCapacity());
+
+            var coveredAfterId = eventLog.map(EventLog::coveredAfterId).orElse(Long.MAX_VALUE);
+            var databaseBeforeId = coveredAfterId == Long.MAX_VALUE
+                    ? storageBeforeId
+                    : Math.min(storageBeforeId, coveredAfterId + 1);
+
+            var fromDatabase = readPages(afterId, databaseBeforeId, filter)
+                    .filter(filter::matches)
+                    .doOnNext(transaction -> replayed.add(transaction.getId()))
+                    .map(frameEncoder::encode);
+            var fromLog = databaseBeforeId >= storageBeforeId
+                    ? Flux.<TransactionFrame>empty()
+                    : eventLog.get().frames(Math.max(afterId, coveredAfterId), storageBeforeId)
+                    .filter(frame -> filter.matches(frame.transaction()))
+                    .doOnNext(frame -> replayed.add(frame.transaction().getId()));
+            // ring entries at or below storageUpToId were read from storage already
+            var ringAfterId = Math.max(afterId, storageUpToId);
+            var fromRing = Flux.fromIterable(snapshot.entries())
+                    .filter(entry -> entry.transaction().getId() > ringAfterId && filter.matches(entry.transaction()))
+                    .map(ReplayBuffer.Entry::frame);
+            var fromLive = pending.flux()
+                    .filter(entry -> entry.sequence() > snapshot.lastSequence())
+                    .filter(entry -> entry.transaction().getId() > afterId && !replayed.contains(entry.transaction().getId()))
+                    .map(ReplayBuffer.Entry::frame)
+                    .doOnNext(metrics::recordDelivery);
+
+            return Flux.concat(fromDatabase, fromLog, fromRing, fromLive)
+                    .doFinally(signal -> pending.dispose());
+        });
+    }
+
+    private Flux<TransactionsEntity> readPages(long afterId, long beforeId, SubscriptionFilter filter) {
+        if (afterId >= beforeId - 1) {
+            return Flux.empty();
+        }
+        var pageSize = properties.getPageSize();
+        var rows = filter.userId() == null
+                ? transactionRepository.findPage(afterId, beforeId, pageSize)
+                : transactionRepository.findUserPage(filter.userId(), afterId, beforeId, pageSize);
+        return rows
+                .collectList()
+                .flatMapMany(page -> {
+                    if (page.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    var lastId = page.get(page.size() - 1).getId();
+                    log.debug("Replayed {} transactions from database up to id {}", page.size(), lastId);
+                    var next = page.size() < pageSize
+                            ? Flux.<TransactionsEntity>empty()
+                            : Flux.defer(() -> readPages(lastId, beforeId, filter));
+                    return Flux.fromIterable(page).concatWith(next);
+                });
+    }
+
+    /**
+     * The live subscription, held open without demand until the live tier subscribes to
+     * {@link #flux()}, which then forwards its requests upstream as they come. A termination
+     * that arrives earlier is kept and replayed on attach.
+     */
+    private final class DeferredLive extends BaseSubscriber<ReplayBuffer.Entry> {
+
+        private volatile FluxSink<ReplayBuffer.Entry> sink;
+        // guarded by this until the sink is attached
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // no demand until the live tier is reached
+        }
+
+        @Override
+        protected void hookOnNext(ReplayBuffer.Entry entry) {
+            // only requested once attached
+            sink.next(entry);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            FluxSink<ReplayBuffer.Entry> current;
+            synchronized (this) {
+                current = sink;
+                if (current == null) {
+                    if (throwable instanceof SlowConsumerException) {
+                        metrics.replayOverflow();
+                    }
+                    error = throwable;
+                    return;
+                }
+            }
+            current.error(throwable);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            FluxSink<ReplayBuffer.Entry> current;
+            synchronized (this) {
+                current = sink;
+                if (current == null) {
+                    completed = true;
+                    return;
+                }
+            }
+            current.complete();
+        }
+
+        Flux<ReplayBuffer.Entry> flux() {
+            return Flux.create(attached -> {
+                Throwable failure;
+                boolean done;
+                synchronized (this) {
+                    sink = attached;
+                    failure = error;
+                    done = completed;
+                }
+                if (failure != null) {
+                    attached.error(failure);
+                } else if (done) {
+                    attached.complete();
+                } else {
+                    attached.onRequest(this::request);
+                }
+            });
+        }
+    }
+
+    /**
+     * Ids replayed from storage that may still arrive live: a save committed before the storage
+     * read but published after the snapshot. Storage is read in ascending id order, so keeping
+     * the most recent {@code capacity} ids keeps the highest ones, where such stragglers are.
+     */
+    private static final class StoredIds {
+
+        private final int capacity;
+        private final Set<Long> ids = new LinkedHashSet<>();
+
+        StoredIds(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(long id) {
+            ids.add(id);
+            if (ids.size() > capacity) {
+                var eldest = ids.iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        boolean contains(long id) {
+            return ids.contains(id);
+        }
+    }
+}
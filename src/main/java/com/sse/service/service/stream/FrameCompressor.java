@@ -0,0 +1,75 @@
+package com.sse.service.service.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses one stream frame by frame. Every frame ends with a sync flush, so the client can
+ * decompress it as soon as it arrives instead of waiting for the compressor's window to fill.
+ * Not thread-safe; a stream delivers its frames serially.
+ */
+public final class FrameCompressor {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final StreamCompression compression;
+    private final Deflater deflater;
+    private final CRC32 checksum = new CRC32();
+    private final byte[] chunk = new byte[8192];
+    private boolean started;
+
+    public FrameCompressor(StreamCompression compression, int level) {
+        this.compression = compression;
+        // gzip wraps raw deflate data itself; deflate is the zlib format, which Deflater frames
+        this.deflater = new Deflater(level, compression == StreamCompression.GZIP);
+    }
+
+    public byte[] compress(byte[] frame) {
+        var out = new ByteArrayOutputStream(frame.length / 2 + 32);
+        if (!started && compression == StreamCompression.GZIP) {
+            out.writeBytes(GZIP_HEADER);
+        }
+        started = true;
+        checksum.update(frame);
+        deflater.setInput(frame);
+        int written;
+        do {
+            written = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+            out.write(chunk, 0, written);
+        } while (written == chunk.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Ends the compressed stream after its last frame.
+     */
+    public byte[] finish() {
+        var out = new ByteArrayOutputStream(64);
+        if (!started && compression == StreamCompression.GZIP) {
+            out.writeBytes(GZIP_HEADER);
+        }
+        started = true;
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        if (compression == StreamCompression.GZIP) {
+            writeIntLe(out, (int) checksum.getValue());
+            writeIntLe(out, (int) deflater.getBytesRead());
+        }
+        release();
+        return out.toByteArray();
+    }
+
+    public void release() {
+        deflater.end();
+    }
+
+    private static void writeIntLe(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sse.service.service.stream;
+
+public class StalledWriteException extends RuntimeException {
+
+    public StalledWriteException(String message) {
+        super(message);
+    }
+}
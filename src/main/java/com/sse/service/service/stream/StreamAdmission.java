@@ -0,0 +1,88 @@
+package com.sse.service.service.stream;
+
+import com.sse.service.config.properties.StreamProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps concurrent stream connections per instance and per {@code userId}. A connection is
+ * admitted with a {@link Permit} that must be released once its stream terminates.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamAdmission {
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<String, Integer> connectionsByUser = new ConcurrentHashMap<>();
+
+    private final StreamProperties properties;
+
+    /**
+     * @param userId the stream's userId filter, or {@code null} if it is not restricted to a user
+     * @throws StreamRejectedException with 503 when the instance is full, 429 when the user is
+     */
+    public Permit acquire(String userId) {
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            throw instanceFull();
+        }
+        if (userId != null && !acquireUser(userId)) {
+            connections.decrementAndGet();
+            throw userFull(userId);
+        }
+        return new Permit(userId);
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    private StreamRejectedException instanceFull() {
+        return new StreamRejectedException(HttpStatus.SERVICE_UNAVAILABLE, properties.getRetryAfter(),
+                "Stream connection limit reached");
+    }
+
+    private StreamRejectedException userFull(String userId) {
+        return new StreamRejectedException(HttpStatus.TOO_MANY_REQUESTS, properties.getRetryAfter(),
+                "Stream connection limit reached for user " + userId);
+    }
+
+    private boolean acquireUser(String userId) {
+        var admitted = new boolean[1];
+        connectionsByUser.compute(userId, (key, count) -> {
+            var current = count == null ? 0 : count;
+            admitted[0] = current < properties.getMaxConnectionsPerUser();
+            return admitted[0] ? current + 1 : count;
+        });
+        return admitted[0];
+    }
+
+    private void release(String userId) {
+        if (userId != null) {
+            connectionsByUser.computeIfPresent(userId, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        connections.decrementAndGet();
+    }
+
+    public final class Permit {
+
+        private final String userId;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String userId) {
+            this.userId = userId;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                StreamAdmission.this.release(userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sse.service.service.stream;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Content codings a stream can be compressed with, negotiated from {@code Accept-Encoding}.
+ */
+public enum StreamCompression {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String coding;
+
+    StreamCompression(String coding) {
+        this.coding = coding;
+    }
+
+    public String coding() {
+        return coding;
+    }
+
+    /**
+     * @return gzip if accepted, otherwise deflate if accepted; codings with {@code q=0} are not
+     */
+    public static Optional<StreamCompression> negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return Optional.empty();
+        }
+        var accepted = new boolean[values().length];
+        for (var part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            var parameters = part.trim().split(";");
+            var refused = parameters.length > 1 && parameters[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            for (var compression : values()) {
+                if (parameters[0].trim().equals(compression.coding) && !refused) {
+                    accepted[compression.ordinal()] = true;
+                }
+            }
+        }
+        for (var compression : values()) {
+            if (accepted[compression.ordinal()]) {
+                return Optional.of(compression);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.sse.service.service.stream;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Wire formats of the transaction streams, negotiated from {@code Accept}.
+ */
+public enum StreamEncoding {
+
+    SSE(MediaType.TEXT_EVENT_STREAM, ":\n\n"),
+    /**
+     * One JSON document per line; a blank line serves as heartbeat.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "\n"),
+    /**
+     * Concatenated Smile documents, each with its own header, as Spring's Smile codecs stream
+     * them. Binary, so there is no heartbeat payload.
+     */
+    SMILE(new MediaType("application", "stream+x-jackson-smile"), "");
+
+    private final MediaType mediaType;
+    private final byte[] heartbeat;
+
+    StreamEncoding(MediaType mediaType, String heartbeat) {
+        this.mediaType = mediaType;
+        this.heartbeat = heartbeat.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the heartbeat payload, empty if the encoding has none
+     */
+    public byte[] heartbeat() {
+        return heartbeat;
+    }
+
+    /**
+     * @return the first encoding the client accepts in its order of preference, falling back to
+     * SSE as the streams did before encodings were negotiable
+     */
+    public static StreamEncoding negotiate(List<MediaType> accept) {
+        for (var mediaType : accept) {
+            for (var encoding : values()) {
+                if (mediaType.isCompatibleWith(encoding.mediaType)) {
+                    return encoding;
+                }
+            }
+        }
+        return SSE;
+    }
+}
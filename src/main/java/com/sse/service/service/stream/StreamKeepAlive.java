@@ -0,0 +1,67 @@
+package com.sse.service.service.stream;
+
+import com.sse.service.config.properties.StreamProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interleaves heartbeats with a stream's frames and closes the stream once its writer stops
+ * demanding data for longer than the stall timeout, i.e. when the peer no longer drains the
+ * socket. Heartbeats are dropped rather than queued while the writer is busy; encodings without
+ * a heartbeat payload still get the stall check.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamKeepAlive {
+
+    private final StreamProperties properties;
+
+    public Flux<DataBuffer> apply(Flux<DataBuffer> frames, StreamEncoding encoding) {
+        return Flux.defer(() -> {
+            var demand = new WriteDemand();
+            var stallTimeout = properties.getWriteStallTimeout();
+            var heartbeats = Flux.interval(Duration.ZERO, properties.getHeartbeatInterval())
+                    .<DataBuffer>handle((tick, sink) -> {
+                        if (demand.exhaustedLongerThan(stallTimeout)) {
+                            sink.error(new StalledWriteException("No write progress for " + stallTimeout));
+                        } else if (encoding.heartbeat().length > 0 || tick == 0) {
+                            // an empty first heartbeat still commits the response headers
+                            sink.next(DefaultDataBufferFactory.sharedInstance.wrap(encoding.heartbeat()));
+                        }
+                    })
+                    .onBackpressureDrop();
+            return Flux.merge(frames, heartbeats)
+                    .doOnRequest(demand::requested)
+                    .doOnNext(buffer -> demand.emitted());
+        });
+    }
+
+    /**
+     * Outstanding writer demand and when it last dropped to zero.
+     */
+    private static final class WriteDemand {
+
+        private final AtomicLong outstanding = new AtomicLong();
+        private volatile long exhaustedAt = System.nanoTime();
+
+        void requested(long n) {
+            outstanding.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        }
+
+        void emitted() {
+            if (outstanding.decrementAndGet() == 0) {
+                exhaustedAt = System.nanoTime();
+            }
+        }
+
+        boolean exhaustedLongerThan(Duration timeout) {
+            return outstanding.get() == 0 && System.nanoTime() - exhaustedAt > timeout.toNanos();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Keep the first saved row of each transaction_id so the unique index can be built.
+DELETE FROM transactions duplicate
+USING transactions original
+WHERE duplicate.transaction_id = original.transaction_id
+  AND duplicate.id > original.id;
+
+CREATE UNIQUE INDEX transactions_transaction_id_uidx ON transactions (transaction_id);
@@ -0,0 +1,66 @@
+--liquibase formatted sql
+
+--changeset sse-service:003-partition-transactions splitStatements:false
+-- A unique index on a partitioned table must contain the partition key, so transaction_id
+-- uniqueness moves to a narrow side table that also serves lookups by transaction_id.
+CREATE TABLE transaction_ids
+(
+    transaction_id uuid PRIMARY KEY,
+    id             bigint    NOT NULL,
+    created_at     timestamp NOT NULL
+);
+
+CREATE INDEX transaction_ids_created_at_idx ON transaction_ids (created_at);
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+
+CREATE TABLE transactions
+(
+    id             bigint         NOT NULL DEFAULT nextval('transactions_id_seq'),
+    transaction_id uuid           NOT NULL,
+    status         VARCHAR(255)   NOT NULL,
+    user_id        VARCHAR(255)   NOT NULL,
+    amount         DECIMAL(19, 2) NOT NULL,
+    currency       VARCHAR(255)   NOT NULL,
+    description    VARCHAR(255)   NOT NULL,
+    created_at     timestamp      NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE INDEX transactions_user_created_id_idx ON transactions (user_id, created_at, id);
+
+-- monthly partitions from the oldest row up to two months ahead; later ones are created by
+-- the application, and rows outside every partition land in the default one
+DO
+$$
+    DECLARE
+        partition_start date;
+    BEGIN
+        FOR partition_start IN
+            SELECT generate_series(
+                           date_trunc('month', coalesce((SELECT min(created_at) FROM transactions_unpartitioned), now())),
+                           date_trunc('month', now()) + interval '2 months',
+                           interval '1 month')::date
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                               'transactions_p' || to_char(partition_start, 'YYYY_MM'), partition_start,
+                               partition_start + interval '1 month');
+            END LOOP;
+    END
+$$;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+INSERT INTO transaction_ids (transaction_id, id, created_at)
+SELECT transaction_id, id, created_at
+FROM transactions_unpartitioned;
+
+INSERT INTO transactions (id, transaction_id, status, user_id, amount, currency, description, created_at)
+SELECT id, transaction_id, status, user_id, amount, currency, description, created_at
+FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
@@ -0,0 +1,46 @@
+--liquibase formatted sql
+
+--changeset sse-service:004-partition-transaction-ids splitStatements:false
+-- transaction_ids follows the monthly partitions of transactions, so that retention drops both
+-- instead of deleting rows from the side table. Its key must then contain created_at; the
+-- application keeps transaction_id unique across partitions by claiming ids under advisory locks.
+ALTER TABLE transaction_ids RENAME TO transaction_ids_unpartitioned;
+ALTER TABLE transaction_ids_unpartitioned RENAME CONSTRAINT transaction_ids_pkey TO transaction_ids_unpartitioned_pkey;
+DROP INDEX transaction_ids_created_at_idx;
+
+CREATE TABLE transaction_ids
+(
+    transaction_id uuid      NOT NULL,
+    id             bigint    NOT NULL,
+    created_at     timestamp NOT NULL,
+    PRIMARY KEY (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- one partition per existing transactions partition, with the same bounds
+DO
+$$
+    DECLARE
+        partition_name text;
+    BEGIN
+        FOR partition_name IN
+            SELECT c.relname
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'transactions'::regclass
+              AND c.relname ~ '^transactions_p\d{4}_\d{2}$'
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF transaction_ids FOR VALUES FROM (%L) TO (%L)',
+                               replace(partition_name, 'transactions_p', 'transaction_ids_p'),
+                               to_date(substr(partition_name, 15), 'YYYY_MM'),
+                               to_date(substr(partition_name, 15), 'YYYY_MM') + interval '1 month');
+            END LOOP;
+    END
+$$;
+
+CREATE TABLE transaction_ids_default PARTITION OF transaction_ids DEFAULT;
+
+INSERT INTO transaction_ids (transaction_id, id, created_at)
+SELECT transaction_id, id, created_at
+FROM transaction_ids_unpartitioned;
+
+DROP TABLE transaction_ids_unpartitioned;
@@ -0,0 +1,69 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.service.aggregate.AggregateDimension;
+import com.sse.service.service.aggregate.TransactionAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+@TestPropertySource(properties = "sse.aggregates.emit-interval=100ms")
+class AggregateFunctionalTest extends BaseFunctionalTest {
+
+    private static final int TRANSACTIONS = 3;
+
+    @Test
+    @DisplayName("Aggregates: a user's running totals are streamed as conflated deltas")
+    void shouldStreamUserAggregates() {
+        var userId = "user-" + UUID.randomUUID();
+
+        var aggregates = client.get()
+                .uri("/api/aggregates/stream?dimension=user&key=" + userId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionAggregate.class)
+                .getResponseBody();
+
+        StepVerifier.create(aggregates)
+                .then(() -> {
+                    for (int i = 0; i < TRANSACTIONS; i++) {
+                        var request = random(TransactionsRequest.class);
+                        request.setId(UUID.randomUUID());
+                        request.setUserId(userId);
+                        request.setAmount(new BigDecimal("10.50"));
+                        request.setStatus("STATUS-" + i);
+                        client.post()
+                                .uri("/api/transactions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(Mono.just(request), TransactionsRequest.class)
+                                .exchange()
+                                .expectStatus().isOk();
+                    }
+                })
+                .thenConsumeWhile(aggregate -> aggregate.count() < TRANSACTIONS)
+                .expectNextMatches(aggregate -> aggregate.dimension() == AggregateDimension.USER
+                        && aggregate.key().equals(userId)
+                        && aggregate.sum().compareTo(new BigDecimal("31.50")) == 0
+                        && aggregate.lastStatus().equals("STATUS-" + (TRANSACTIONS - 1)))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Aggregates: a key without a dimension is rejected")
+    void shouldRejectKeyWithoutDimension() {
+        client.get()
+                .uri("/api/aggregates/stream?key=USD")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -15,16 +15,16 @@ import org.testcontainers.containers.PostgreSQLContainer;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         classes = {SseServiceApplication.class},
-        properties = "spring.main.allow-bean-definition-overriding=true")
+        properties = {"spring.main.allow-bean-definition-overriding=true", "spring.rsocket.server.port=0"})
 @DirtiesContext
 @AutoConfigureWebTestClient(timeout = "PT10M")
 @Tag("FunctionalTest")
 public abstract class BaseFunctionalTest extends BaseTest {
 
-    private static final String JDBC_PREFIX = "jdbc";
-    private static final String R2DBC_PREFIX = "r2dbc";
+    protected static final String JDBC_PREFIX = "jdbc";
+    protected static final String R2DBC_PREFIX = "r2dbc";
 
-    private static final PostgreSQLContainer PSQL_CONTAINER = (PostgreSQLContainer) new PostgreSQLContainer("postgres:latest")
+    protected static final PostgreSQLContainer PSQL_CONTAINER = (PostgreSQLContainer) new PostgreSQLContainer("postgres:latest")
             .withUsername("root")
             .withPassword("password")
             .withDatabaseName("redis_service")
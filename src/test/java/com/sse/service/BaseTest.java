@@ -1,10 +1,26 @@
 package com.sse.service;
 
+import com.sse.service.api.request.TransactionsRequest;
 import org.instancio.Instancio;
+import org.instancio.Model;
+
+import java.math.BigDecimal;
+
+import static org.instancio.Select.field;
 
 abstract class BaseTest {
 
+    // ingest rejects amounts and currencies the columns or ISO 4217 would not accept
+    private static final Model<TransactionsRequest> TRANSACTIONS_REQUEST = Instancio.of(TransactionsRequest.class)
+            .generate(field(TransactionsRequest::getAmount),
+                    gen -> gen.math().bigDecimal().min(new BigDecimal("0.01")).max(new BigDecimal("10000")).scale(2))
+            .generate(field(TransactionsRequest::getCurrency), gen -> gen.oneOf("USD", "EUR", "GBP"))
+            .toModel();
+
     protected static <T> T random(Class<T> type) {
+        if (type == TransactionsRequest.class) {
+            return type.cast(Instancio.create(TRANSACTIONS_REQUEST));
+        }
         return Instancio.create(type);
     }
 }
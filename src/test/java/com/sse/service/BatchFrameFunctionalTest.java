@@ -0,0 +1,53 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+class BatchFrameFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Batch frames: transactions are grouped into array frames carrying the last id")
+    void shouldStreamBatchFrames() {
+        var userId = "batch-user-" + UUID.randomUUID();
+        var requests = List.of(random(TransactionsRequest.class), random(TransactionsRequest.class));
+        requests.forEach(request -> request.setUserId(userId));
+
+        var batches = client.get()
+                .uri("/api/transactions/stream/new?userId=" + userId + "&batch=500ms&maxBatch=10")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<List<TransactionsEntity>>>() {
+                })
+                .getResponseBody()
+                .filter(event -> event.data() != null);
+
+        StepVerifier.create(batches)
+                .then(() -> client.post()
+                        .uri("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(Flux.fromIterable(requests), TransactionsRequest.class)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(String.class)
+                        .getResponseBody()
+                        .blockLast())
+                .expectNextMatches(event -> event.data().size() == 2
+                        && event.data().get(0).getTransactionId().equals(requests.get(0).getId())
+                        && event.data().get(1).getTransactionId().equals(requests.get(1).getId())
+                        && event.id().equals(String.valueOf(event.data().get(1).getId())))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,101 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionBatchItemResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class BatchIngestFunctionalTest extends BaseFunctionalTest {
+
+    private static final int SINGLE_ROWS = 500;
+    private static final int BATCH_ROWS = 5_000;
+    private static final int CONCURRENCY = 16;
+
+    private List<TransactionsRequest> createTransactionRequests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setId(UUID.randomUUID());
+                    return request;
+                })
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Batch ingest: NDJSON body is saved in chunks and streamed back per item")
+    void shouldIngestNdjsonBatch() {
+        var requests = createTransactionRequests(BATCH_ROWS);
+
+        var startedAt = System.nanoTime();
+        var results = client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.fromIterable(requests), TransactionsRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionBatchItemResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        var batchRowsPerSecond = rowsPerSecond(BATCH_ROWS, System.nanoTime() - startedAt);
+
+        assertThat(results).hasSize(BATCH_ROWS);
+        assertThat(results).allMatch(result -> TransactionBatchItemResponse.SAVED.equals(result.getStatus()));
+        assertThat(results).extracting(TransactionBatchItemResponse::getTransactionId)
+                .containsExactlyElementsOf(requests.stream().map(TransactionsRequest::getId).toList());
+        assertThat(transactionRepository.count().block()).isEqualTo(BATCH_ROWS);
+
+        startedAt = System.nanoTime();
+        Flux.fromIterable(createTransactionRequests(SINGLE_ROWS))
+                .flatMap(request -> Mono.fromRunnable(() -> client.post()
+                                .uri("/api/transactions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(Mono.just(request), TransactionsRequest.class)
+                                .exchange()
+                                .expectStatus().isOk())
+                        .subscribeOn(Schedulers.boundedElastic()), CONCURRENCY)
+                .blockLast();
+        var singleRowsPerSecond = rowsPerSecond(SINGLE_ROWS, System.nanoTime() - startedAt);
+
+        log.info("Ingest throughput: batch {} rows/s, single-row {} rows/s ({}x)",
+                batchRowsPerSecond, singleRowsPerSecond, batchRowsPerSecond / Math.max(singleRowsPerSecond, 1));
+        assertThat(transactionRepository.count().block()).isEqualTo(BATCH_ROWS + SINGLE_ROWS);
+    }
+
+    @Test
+    @DisplayName("Batch ingest: JSON array body is accepted")
+    void shouldIngestJsonArrayBatch() {
+        var requests = createTransactionRequests(10);
+
+        var results = client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionBatchItemResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(10);
+        assertThat(results).allMatch(result -> result.getId() != null);
+    }
+
+    private static long rowsPerSecond(int rows, long elapsedNanos) {
+        return rows * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.cluster.ClusterNotificationListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@TestPropertySource(properties = "sse.cluster.enabled=true")
+class ClusterFanOutFunctionalTest extends BaseFunctionalTest {
+
+    private ConfigurableApplicationContext secondInstance;
+    private WebTestClient secondClient;
+
+    @BeforeEach
+    void startSecondInstance() {
+        secondInstance = new SpringApplicationBuilder(SseServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.rsocket.server.port=0",
+                        "sse.cluster.enabled=true",
+                        "spring.liquibase.url=" + PSQL_CONTAINER.getJdbcUrl(),
+                        "spring.r2dbc.url=" + PSQL_CONTAINER.getJdbcUrl().replace(JDBC_PREFIX, R2DBC_PREFIX),
+                        "spring.r2dbc.username=" + PSQL_CONTAINER.getUsername(),
+                        "spring.r2dbc.password=" + PSQL_CONTAINER.getPassword())
+                .run();
+        var port = ((ReactiveWebServerApplicationContext) secondInstance).getWebServer().getPort();
+        secondClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofSeconds(30))
+                .build();
+        // the LISTEN connection is opened asynchronously once the instance is ready
+        var listener = secondInstance.getBean(ClusterNotificationListener.class);
+        Flux.interval(Duration.ofMillis(50))
+                .filter(tick -> listener.isListening())
+                .blockFirst(Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void stopSecondInstance() {
+        secondInstance.close();
+    }
+
+    @Test
+    @DisplayName("Cluster: a transaction posted to one instance is streamed by another")
+    void shouldFanOutTransactionsAcrossInstances() {
+        var transactionId = UUID.randomUUID();
+
+        var secondInstanceStream = secondClient.get()
+                .uri("/api/transactions/stream/new")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody();
+
+        StepVerifier.create(secondInstanceStream)
+                .then(() -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setId(transactionId);
+                    client.post()
+                            .uri("/api/transactions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(Mono.just(request), TransactionsRequest.class)
+                            .exchange()
+                            .expectStatus().isOk();
+                })
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transactionId))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+}
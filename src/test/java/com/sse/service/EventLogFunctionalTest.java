@@ -0,0 +1,160 @@
+package com.sse.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.config.properties.EventLogProperties;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.eventlog.EventLog;
+import com.sse.service.service.frame.TransactionFrameEncoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// a one-entry ring sends every replay below the latest transaction to the log
+@TestPropertySource(properties = {
+        "sse.replay.capacity=1",
+        "sse.event-log.enabled=true",
+        // more rows per user than the default burst are published in one batch
+        "sse.ingest.rate-limit.burst=1000",
+        "sse.event-log.directory=build/tmp/event-log-functional-test",
+        "sse.event-log.segment-size=16KB",
+        "sse.event-log.index-interval=1KB"
+})
+class EventLogFunctionalTest extends BaseFunctionalTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<TransactionsEntity>> EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private EventLog eventLog;
+
+    @Autowired
+    private EventLogProperties eventLogProperties;
+
+    private final String userId = "log-user-" + UUID.randomUUID();
+
+    @BeforeEach
+    void awaitCatchUp() {
+        Flux.interval(Duration.ofMillis(50))
+                .filter(tick -> eventLog.coveredAfterId() < Long.MAX_VALUE)
+                .blockFirst(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Event log: an unfiltered resume is replayed from the log once the rows are gone")
+    void shouldResumeFromLogWithoutDatabase() {
+        var published = publish(100);
+        // proves the replay never reads Postgres
+        transactionRepository.deleteAll().block();
+
+        var resumed = client.get()
+                .uri("/api/transactions/stream/all")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", String.valueOf(published.get(0).getId() - 1))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT)
+                .getResponseBody()
+                .filter(event -> event.data() != null)
+                .map(ServerSentEvent::data);
+
+        StepVerifier.create(resumed.take(published.size()).map(TransactionsEntity::getTransactionId).collectList())
+                .expectNext(published.stream().map(TransactionsEntity::getTransactionId).toList())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Event log: a filtered resume only gets the matching frames from the log")
+    void shouldResumeFilteredFromLog() {
+        var published = publish(20);
+        publish("other-" + UUID.randomUUID(), 20);
+        transactionRepository.deleteAll().block();
+
+        var resumed = client.get()
+                .uri("/api/transactions/stream/new?userId=" + userId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", String.valueOf(published.get(0).getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT)
+                .getResponseBody()
+                .filter(event -> event.data() != null)
+                .map(ServerSentEvent::data);
+
+        StepVerifier.create(resumed.take(published.size() - 1).map(TransactionsEntity::getTransactionId).collectList())
+                .expectNext(published.stream().skip(1).map(TransactionsEntity::getTransactionId).toList())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Event log: frames roll over into new segments and stay readable across them")
+    void shouldReadAcrossSegments() {
+        var published = publish(200);
+
+        var frames = eventLog.frames(published.get(0).getId() - 1, Long.MAX_VALUE)
+                .filter(frame -> userId.equals(frame.transaction().getUserId()))
+                .map(frame -> frame.transaction().getTransactionId())
+                .collectList()
+                .block();
+
+        assertThat(frames).containsExactlyElementsOf(published.stream().map(TransactionsEntity::getTransactionId).toList());
+    }
+
+    @Test
+    @DisplayName("Event log: a second log on the same directory fails to open")
+    void shouldRejectSharedDirectory(@Autowired DatabaseClient databaseClient,
+                                     @Autowired TransactionFrameEncoder frameEncoder,
+                                     @Autowired ObjectMapper objectMapper) {
+        assertThatThrownBy(() -> new EventLog(eventLogProperties, transactionRepository, databaseClient,
+                frameEncoder, objectMapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("in use by another instance");
+    }
+
+    private List<TransactionsEntity> publish(int count) {
+        return publish(userId, count);
+    }
+
+    private List<TransactionsEntity> publish(String userId, int count) {
+        var requests = IntStream.range(0, count)
+                .mapToObj(i -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setId(UUID.randomUUID());
+                    request.setUserId(userId);
+                    return request;
+                })
+                .toList();
+        client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.fromIterable(requests), TransactionsRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .blockLast();
+        return transactionRepository.findAll()
+                .filter(transaction -> userId.equals(transaction.getUserId()))
+                .sort(Comparator.comparing(TransactionsEntity::getId))
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,63 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// one user publishes more than the default burst
+@TestPropertySource(properties = "sse.ingest.rate-limit.burst=1000")
+class FanOutFunctionalTest extends BaseFunctionalTest {
+
+    private static final int CONCURRENT_PUBLISHES = 200;
+
+    @Test
+    @DisplayName("Fan-out: concurrent publishes are all delivered, none dropped under contention")
+    void shouldDeliverConcurrentPublishes() {
+        var userId = "concurrent-user-" + UUID.randomUUID();
+        var requests = IntStream.range(0, CONCURRENT_PUBLISHES)
+                .mapToObj(i -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setUserId(userId);
+                    return request;
+                })
+                .toList();
+
+        var received = client.get()
+                .uri("/api/transactions/stream/new?userId=" + userId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody()
+                .take(CONCURRENT_PUBLISHES)
+                .map(TransactionsEntity::getTransactionId)
+                .collect(Collectors.toSet());
+
+        StepVerifier.create(received)
+                .then(() -> Flux.fromIterable(requests)
+                        .parallel(8)
+                        .runOn(Schedulers.boundedElastic())
+                        .flatMap(request -> client.post()
+                                .uri("/api/transactions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(request)
+                                .exchange()
+                                .returnResult(TransactionsResponse.class)
+                                .getResponseBody())
+                        .sequential()
+                        .blockLast())
+                .expectNext(requests.stream().map(TransactionsRequest::getId).collect(Collectors.toSet()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,48 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "sse.ingest.group-commit.enabled=true",
+        "sse.ingest.group-commit.window=20ms"
+})
+class GroupCommitFunctionalTest extends BaseFunctionalTest {
+
+    private static final int REQUESTS = 200;
+
+    @Test
+    @DisplayName("Group commit: concurrent single POSTs are all saved with their own ids")
+    void shouldSaveConcurrentTransactionsThroughGroupCommit() {
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setId(UUID.randomUUID());
+                    return Mono.fromRunnable(() -> client.post()
+                                    .uri("/api/transactions")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(Mono.just(request), TransactionsRequest.class)
+                                    .exchange()
+                                    .expectStatus().isOk())
+                            .subscribeOn(Schedulers.boundedElastic());
+                }, 50)
+                .blockLast();
+
+        var saved = transactionRepository.findAll().collectList().block();
+
+        assertThat(saved).hasSize(REQUESTS);
+        assertThat(saved).extracting(TransactionsEntity::getId).doesNotHaveDuplicates();
+        assertThat(saved).extracting(TransactionsEntity::getCreatedAt).doesNotContainNull();
+    }
+}
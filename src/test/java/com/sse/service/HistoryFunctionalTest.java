@@ -0,0 +1,165 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionPageResponse;
+import com.sse.service.config.properties.HistoryProperties;
+import com.sse.service.mapper.TransactionMapper;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.history.TransactionPartitionMaintainer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryFunctionalTest extends BaseFunctionalTest {
+
+    private static final int USER_ROWS = 5;
+
+    private final String userId = "user-" + UUID.randomUUID();
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionPartitionMaintainer partitionMaintainer;
+
+    @Autowired
+    private HistoryProperties historyProperties;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    private List<UUID> ingest(String userId, int count) {
+        var requests = IntStream.range(0, count)
+                .mapToObj(i -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setId(UUID.randomUUID());
+                    request.setUserId(userId);
+                    return request;
+                })
+                .toList();
+        client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.fromIterable(requests), TransactionsRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .blockLast();
+        return requests.stream().map(TransactionsRequest::getId).toList();
+    }
+
+    @Test
+    @DisplayName("History: keyset pages walk one user's transactions in order")
+    void shouldPageThroughUserHistory() {
+        var expected = ingest(userId, USER_ROWS);
+        ingest("user-" + UUID.randomUUID(), 3);
+
+        var received = new ArrayList<UUID>();
+        String cursor = null;
+        var pages = 0;
+        do {
+            var uri = "/api/transactions?userId=" + userId + "&limit=2" + (cursor == null ? "" : "&cursor=" + cursor);
+            var page = client.get()
+                    .uri(uri)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(TransactionPageResponse.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertThat(page).isNotNull();
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            page.getItems().forEach(item -> received.add(item.getTransactionId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(received).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("History: NDJSON export streams every matching row")
+    void shouldExportUserHistoryAsNdjson() {
+        var expected = ingest(userId, USER_ROWS);
+
+        var exported = client.get()
+                .uri("/api/transactions?userId=" + userId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody()
+                .map(TransactionsEntity::getTransactionId)
+                .collectList()
+                .block();
+
+        assertThat(exported).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("History: a query without userId is rejected")
+    void shouldRejectHistoryWithoutUserId() {
+        client.get()
+                .uri("/api/transactions?limit=10")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("History: new partitions take over the rows their month left in the default partitions")
+    void shouldMoveDefaultRowsIntoNewPartition() {
+        var month = YearMonth.now().plusMonths(historyProperties.getPartitionsAhead());
+        var suffix = "_p%d_%02d".formatted(month.getYear(), month.getMonthValue());
+        var request = random(TransactionsRequest.class);
+        request.setUserId(userId);
+        var transactionId = request.getId();
+        // the furthest partitions ahead hold no rows yet; without them, their month lands in the default ones
+        databaseClient.sql("DROP TABLE IF EXISTS transactions" + suffix + ", transaction_ids" + suffix).then().block();
+        var entity = transactionMapper.toEntity(request);
+        entity.setCreatedAt(month.atDay(1).atStartOfDay());
+        transactionRepository.insert(entity).block();
+
+        partitionMaintainer.maintain().block();
+
+        assertThat(holder("transactions", transactionId)).containsExactly("transactions" + suffix);
+        assertThat(holder("transaction_ids", transactionId)).containsExactly("transaction_ids" + suffix);
+    }
+
+    @Test
+    @DisplayName("History: a transaction_id claimed in one partition is not inserted again in another")
+    void shouldRejectTransactionIdClaimedInAnotherPartition() {
+        var request = random(TransactionsRequest.class);
+        request.setUserId(userId);
+        var first = transactionMapper.toEntity(request);
+        first.setCreatedAt(YearMonth.now().minusMonths(1).atDay(1).atStartOfDay());
+        var retry = transactionMapper.toEntity(request);
+
+        assertThat(transactionRepository.insert(first).block()).isNotNull();
+        assertThat(transactionRepository.insert(retry).block()).isNull();
+        assertThat(holder("transaction_ids", request.getId())).hasSize(1);
+    }
+
+    private List<String> holder(String table, UUID transactionId) {
+        return databaseClient.sql("SELECT tableoid::regclass::text AS holder FROM " + table + " WHERE transaction_id = $1")
+                .bind(0, transactionId)
+                .map(row -> row.get("holder", String.class))
+                .all()
+                .collectList()
+                .block();
+    }
+}
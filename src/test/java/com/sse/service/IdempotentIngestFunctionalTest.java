@@ -0,0 +1,28 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import reactor.test.StepVerifier;
+
+class IdempotentIngestFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Idempotency: a retried transaction is stored once")
+    void shouldIgnoreDuplicateTransaction() {
+        var request = random(TransactionsRequest.class);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            client.post()
+                    .uri("/api/transactions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        StepVerifier.create(transactionRepository.findAll())
+                .expectNextMatches(tx -> tx.getTransactionId().equals(request.getId()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,128 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionBatchItemResponse;
+import com.sse.service.api.response.TransactionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a refill slow enough that the burst cannot be replenished within a test
+@TestPropertySource(properties = {
+        "sse.ingest.rate-limit.permits-per-second=0.01",
+        "sse.ingest.rate-limit.burst=2",
+        "management.endpoints.web.exposure.include=ingestlimits"
+})
+class IngestRateLimitFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Ingest limits: a user over its burst gets 429 with Retry-After and nothing is saved")
+    void shouldRejectUserOverBurst() {
+        var userId = "limited-user-" + UUID.randomUUID();
+        post(userId).expectStatus().isOk();
+        post(userId).expectStatus().isOk();
+
+        var rejected = transaction(userId);
+        post(rejected)
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().value(HttpHeaders.RETRY_AFTER, retryAfter -> assertThat(Long.parseLong(retryAfter)).isPositive())
+                .expectBody(TransactionsResponse.class);
+
+        var saved = transactionRepository.findAll()
+                .filter(transaction -> rejected.getId().equals(transaction.getTransactionId()))
+                .hasElements()
+                .block();
+        assertThat(saved).isFalse();
+
+        // other users are not affected
+        post("other-user-" + UUID.randomUUID()).expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Ingest limits: batch rows beyond a user's burst are rejected per item and not saved")
+    void shouldRejectBatchRowsOverBurst() {
+        var userId = "batch-limited-user-" + UUID.randomUUID();
+        var requests = List.of(transaction(userId), transaction(userId), transaction(userId), transaction(userId));
+
+        var results = client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.fromIterable(requests), TransactionsRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionBatchItemResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(TransactionBatchItemResponse::getStatus).containsExactly(
+                TransactionBatchItemResponse.SAVED, TransactionBatchItemResponse.SAVED,
+                TransactionBatchItemResponse.REJECTED, TransactionBatchItemResponse.REJECTED);
+        assertThat(results.get(2).getMessage()).contains(userId);
+        var saved = transactionRepository.findAll()
+                .filter(transaction -> userId.equals(transaction.getUserId()))
+                .count()
+                .block();
+        assertThat(saved).isEqualTo(2);
+
+        // the bucket is shared with single saves
+        post(userId).expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    @DisplayName("Ingest limits: changes through the actuator endpoint apply to the next request")
+    void shouldApplyUpdatedLimits() {
+        var userId = "reloaded-user-" + UUID.randomUUID();
+        post(userId).expectStatus().isOk();
+        post(userId).expectStatus().isOk();
+        post(userId).expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        try {
+            updateLimits(Map.of("enabled", false));
+            post(userId).expectStatus().isOk();
+
+            updateLimits(Map.of("enabled", true, "maxInFlightSaves", 0));
+            post("other-user-" + UUID.randomUUID()).expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        } finally {
+            updateLimits(Map.of("enabled", true, "maxInFlightSaves", 256));
+        }
+    }
+
+    private void updateLimits(Map<String, Object> limits) {
+        client.post()
+                .uri("/actuator/ingestlimits")
+                .bodyValue(limits)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec post(String userId) {
+        return post(transaction(userId));
+    }
+
+    private WebTestClient.ResponseSpec post(TransactionsRequest request) {
+        return client.post()
+                .uri("/api/transactions")
+                .bodyValue(request)
+                .exchange();
+    }
+
+    private TransactionsRequest transaction(String userId) {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        request.setUserId(userId);
+        return request;
+    }
+}
@@ -0,0 +1,159 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionBatchItemResponse;
+import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.config.RSocketConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.rsocket.server.LocalRSocketServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestValidationFunctionalTest extends BaseFunctionalTest {
+
+    private static final String TEMPLATE = """
+            {"id":"%s","status":"COMPLETED","userId":"%s","amount":%s,"currency":"%s","description":"%s"}""";
+
+    @Test
+    @DisplayName("Ingest validation: a valid body is saved, unknown fields are ignored")
+    void shouldAcceptValidBody() {
+        var transactionId = UUID.randomUUID();
+        var body = TEMPLATE.formatted(transactionId, "user-1", "12.50", "EUR", "coffee")
+                .replace("}", ",\"channel\":{\"type\":\"card\"}}");
+
+        post(body).expectStatus().isOk();
+
+        var saved = transactionRepository.findAll()
+                .filter(transaction -> transactionId.equals(transaction.getTransactionId()))
+                .single()
+                .block();
+        assertThat(saved.getAmount()).isEqualByComparingTo("12.50");
+        assertThat(saved.getCurrency()).isEqualTo("EUR");
+    }
+
+    @Test
+    @DisplayName("Ingest validation: invalid fields are rejected with 400 before anything is saved")
+    void shouldRejectInvalidFields() {
+        var id = UUID.randomUUID().toString();
+        var longText = "x".repeat(256);
+
+        assertRejected(TEMPLATE.formatted("not-a-uuid", "user-1", "1.00", "USD", "d"), "id must be a UUID");
+        assertRejected(TEMPLATE.formatted(id, " ", "1.00", "USD", "d"), "userId is required");
+        assertRejected(TEMPLATE.formatted(id, longText, "1.00", "USD", "d"), "userId must be at most 255 characters");
+        assertRejected(TEMPLATE.formatted(id, "user-1", "0", "USD", "d"), "amount must be positive");
+        assertRejected(TEMPLATE.formatted(id, "user-1", "-5.00", "USD", "d"), "amount must be positive");
+        assertRejected(TEMPLATE.formatted(id, "user-1", "1.005", "USD", "d"), "amount must have at most 2 decimal places");
+        assertRejected(TEMPLATE.formatted(id, "user-1", "1.00", "XYZ", "d"), "currency must be an ISO 4217 code");
+        assertRejected(TEMPLATE.formatted(id, "user-1", "1.00", "usd", "d"), "currency must be an ISO 4217 code");
+        assertRejected("{\"id\":\"" + id + "\",\"status\":\"COMPLETED\"}", "userId is required");
+        assertRejected("{\"id\":", null);
+        assertRejected("[]", "Request body must be a JSON object");
+
+        var saved = transactionRepository.findAll()
+                .filter(transaction -> id.equals(String.valueOf(transaction.getTransactionId())))
+                .hasElements()
+                .block();
+        assertThat(saved).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ingest validation: invalid batch rows fail per item while valid ones are saved")
+    void shouldFailInvalidBatchRows() {
+        var valid = transaction();
+        var negative = transaction();
+        negative.setAmount(new BigDecimal("-1.00"));
+        var lowerCase = transaction();
+        lowerCase.setCurrency("usd");
+
+        var results = client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(valid, negative, lowerCase), TransactionsRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionBatchItemResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(TransactionBatchItemResponse::getStatus).containsExactly(
+                TransactionBatchItemResponse.SAVED, TransactionBatchItemResponse.FAILED, TransactionBatchItemResponse.FAILED);
+        assertThat(results).extracting(TransactionBatchItemResponse::getMessage)
+                .containsExactly(null, "amount must be positive", "currency must be an ISO 4217 code");
+        assertThat(saved(negative.getId())).isFalse();
+        assertThat(saved(lowerCase.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ingest validation: an invalid RSocket save errors with the reason")
+    void shouldRejectInvalidRSocketSave(@Autowired RSocketRequester.Builder requesterBuilder,
+                                        @LocalRSocketServerPort int rSocketPort) {
+        var requester = requesterBuilder.dataMimeType(MediaType.APPLICATION_JSON).tcp("localhost", rSocketPort);
+        var invalid = transaction();
+        invalid.setDescription(" ");
+
+        try {
+            StepVerifier.create(requester.route(RSocketConfiguration.TRANSACTIONS)
+                            .data(invalid)
+                            .retrieveMono(TransactionsResponse.class))
+                    .expectErrorSatisfies(e -> assertThat(e).hasMessageContaining("description is required"))
+                    .verify(Duration.ofSeconds(10));
+        } finally {
+            requester.dispose();
+        }
+        assertThat(saved(invalid.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ingest validation: an oversized body is rejected with 413")
+    void shouldRejectOversizedBody() {
+        var body = TEMPLATE.formatted(UUID.randomUUID(), "user-1", "1.00", "USD", "x".repeat(32 * 1024));
+
+        post(body).expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    private void assertRejected(String body, String message) {
+        var response = post(body)
+                .expectStatus().isBadRequest()
+                .expectBody(TransactionsResponse.class)
+                .returnResult()
+                .getResponseBody();
+        if (message != null) {
+            assertThat(response.getMessage()).isEqualTo(message);
+        }
+    }
+
+    private boolean saved(UUID transactionId) {
+        return transactionRepository.findAll()
+                .filter(transaction -> transactionId.equals(transaction.getTransactionId()))
+                .hasElements()
+                .block();
+    }
+
+    private TransactionsRequest transaction() {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        return request;
+    }
+
+    private WebTestClient.ResponseSpec post(String body) {
+        return client.post()
+                .uri("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+}
@@ -0,0 +1,177 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionStreamRequest;
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.config.RSocketConfiguration;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.fanout.SubscriptionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.rsocket.server.LocalRSocketServerPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RSocketFunctionalTest extends BaseFunctionalTest {
+
+    @Autowired
+    private RSocketRequester.Builder requesterBuilder;
+
+    @Autowired
+    private SubscriptionRegistry subscriptionRegistry;
+
+    @LocalRSocketServerPort
+    private int rSocketPort;
+
+    @LocalServerPort
+    private int httpPort;
+
+    private final List<RSocketRequester> requesters = new ArrayList<>();
+
+    @BeforeEach
+    void awaitPreviousStreamsClosed() {
+        await(() -> subscriptionRegistry.size() == 0);
+    }
+
+    @AfterEach
+    void closeRequesters() {
+        requesters.forEach(RSocketRequester::dispose);
+    }
+
+    @Test
+    @DisplayName("RSocket: a TCP stream delivers exactly what the client requested")
+    void shouldStreamWithRequestN() {
+        var requester = connect(requesterBuilder.dataMimeType(MediaType.APPLICATION_JSON)
+                .tcp("localhost", rSocketPort));
+        var userId = "rsocket-user-" + UUID.randomUUID();
+        var transactions = List.of(transaction(userId), transaction(userId), transaction(userId));
+
+        var streamRequest = new TransactionStreamRequest();
+        streamRequest.setUserId(userId);
+        var stream = requester.route(RSocketConfiguration.STREAM_NEW_TRANSACTIONS)
+                .data(streamRequest)
+                .retrieveFlux(TransactionsEntity.class);
+
+        StepVerifier.create(stream, 1)
+                .then(this::awaitRegistered)
+                .then(() -> {
+                    transactions.forEach(transaction -> save(requester, transaction));
+                    awaitDispatched();
+                })
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transactions.get(0).getId()))
+                // the two not yet requested wait in the subscription queue, not on the wire
+                .then(() -> assertThat(subscriptionRegistry.queuedBytes().getSum()).isPositive())
+                .thenRequest(2)
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transactions.get(1).getId()))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transactions.get(2).getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(15));
+    }
+
+    @Test
+    @DisplayName("RSocket: a replaying TCP stream holds live events back until the catch-up is requested")
+    void shouldReplayWithRequestN() {
+        var requester = connect(requesterBuilder.dataMimeType(MediaType.APPLICATION_JSON)
+                .tcp("localhost", rSocketPort));
+        var userId = "rsocket-user-" + UUID.randomUUID();
+        var stored = List.of(transaction(userId), transaction(userId));
+        var live = transaction(userId);
+        stored.forEach(transaction -> save(requester, transaction));
+
+        var streamRequest = new TransactionStreamRequest();
+        streamRequest.setUserId(userId);
+        var stream = requester.route(RSocketConfiguration.STREAM_ALL_TRANSACTIONS)
+                .data(streamRequest)
+                .retrieveFlux(TransactionsEntity.class);
+
+        StepVerifier.create(stream, 1)
+                .expectNextMatches(tx -> tx.getTransactionId().equals(stored.get(0).getId()))
+                .then(() -> {
+                    save(requester, live);
+                    awaitDispatched();
+                    // the live event waits in the subscription queue behind the unrequested catch-up
+                    assertThat(subscriptionRegistry.queuedBytes().getSum()).isPositive();
+                })
+                .thenRequest(2)
+                .expectNextMatches(tx -> tx.getTransactionId().equals(stored.get(1).getId()))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(live.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(15));
+    }
+
+    @Test
+    @DisplayName("RSocket: fire-and-forget ingest over WebSocket reaches a multiplexed stream")
+    void shouldIngestFireAndForgetOverWebSocket() {
+        var requester = connect(requesterBuilder.dataMimeType(MediaType.APPLICATION_JSON)
+                .websocket(URI.create("ws://localhost:" + httpPort + "/rsocket")));
+        var userId = "rsocket-user-" + UUID.randomUUID();
+        var transaction = transaction(userId);
+
+        var streamRequest = new TransactionStreamRequest();
+        streamRequest.setUserId(userId);
+        var stream = requester.route(RSocketConfiguration.STREAM_NEW_TRANSACTIONS)
+                .data(streamRequest)
+                .retrieveFlux(TransactionsEntity.class);
+
+        StepVerifier.create(stream)
+                .then(this::awaitRegistered)
+                .then(() -> requester.route(RSocketConfiguration.TRANSACTIONS_FIRE_AND_FORGET)
+                        .data(transaction)
+                        .send()
+                        .block(Duration.ofSeconds(10)))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transaction.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(15));
+    }
+
+    /**
+     * The stream is registered once its request frame has reached the server and its shard.
+     */
+    private void awaitRegistered() {
+        await(() -> subscriptionRegistry.size() == 1 && subscriptionRegistry.pendingDispatches() == 0);
+    }
+
+    private void awaitDispatched() {
+        await(() -> subscriptionRegistry.pendingDispatches() == 0);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Flux.interval(Duration.ofMillis(20))
+                .filter(tick -> condition.getAsBoolean())
+                .blockFirst(Duration.ofSeconds(10));
+    }
+
+    private void save(RSocketRequester requester, TransactionsRequest transaction) {
+        requester.route(RSocketConfiguration.TRANSACTIONS)
+                .data(transaction)
+                .retrieveMono(TransactionsResponse.class)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private RSocketRequester connect(RSocketRequester requester) {
+        requesters.add(requester);
+        return requester;
+    }
+
+    private TransactionsRequest transaction(String userId) {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        request.setUserId(userId);
+        return request;
+    }
+}
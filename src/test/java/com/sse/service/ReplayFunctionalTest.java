@@ -0,0 +1,63 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a ring of two splits every replay between Postgres and the ring
+@TestPropertySource(properties = {
+        "sse.replay.capacity=2",
+        "sse.event-log.enabled=false"
+})
+class ReplayFunctionalTest extends BaseFunctionalTest {
+
+    private static final int CONCURRENT_PUBLISHES = 50;
+
+    @Test
+    @DisplayName("Replay: concurrently published transactions are replayed exactly once across Postgres and the ring")
+    void shouldReplayEveryTransactionOnce() {
+        var userId = "replay-user-" + UUID.randomUUID();
+        var published = Flux.range(0, CONCURRENT_PUBLISHES)
+                .parallel(8)
+                .runOn(Schedulers.boundedElastic())
+                .map(i -> {
+                    var request = random(TransactionsRequest.class);
+                    request.setId(UUID.randomUUID());
+                    request.setUserId(userId);
+                    client.post()
+                            .uri("/api/transactions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(request)
+                            .exchange()
+                            .expectStatus().isOk();
+                    return request.getId();
+                })
+                .sequential()
+                .collectList()
+                .block();
+
+        var replayed = client.get()
+                .uri("/api/transactions/stream/all?userId=" + userId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody()
+                .take(Duration.ofSeconds(3))
+                .map(TransactionsEntity::getTransactionId)
+                .collectList()
+                .block();
+
+        assertThat(replayed).containsExactlyInAnyOrderElementsOf(published);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class ResumeFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Resume: Last-Event-ID replays only transactions after the given id")
+    void shouldResumeStreamFromLastEventId() {
+        var request1 = random(TransactionsRequest.class);
+        var request2 = random(TransactionsRequest.class);
+        publish(request1);
+        publish(request2);
+
+        var lastSeenId = transactionRepository.findAll()
+                .filter(tx -> tx.getTransactionId().equals(request1.getId()))
+                .blockLast()
+                .getId();
+
+        var resumedStream = client.get()
+                .uri("/api/transactions/stream/new")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", String.valueOf(lastSeenId))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody();
+
+        StepVerifier.create(resumedStream)
+                .expectNextMatches(tx -> tx.getTransactionId().equals(request2.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private void publish(TransactionsRequest request) {
+        client.post()
+                .uri("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,223 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionStreamRequest;
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.config.RSocketConfiguration;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.fanout.SlowConsumerPolicy;
+import com.sse.service.service.fanout.SlowConsumerStats;
+import com.sse.service.service.fanout.SubscriptionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.rsocket.server.LocalRSocketServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the replaying {@code stream.all} route over RSocket, where the test controls demand
+ * exactly: the first event is taken, more are published than the byte budget holds while
+ * nothing is requested, and what arrives once demand is signalled shows what the policy kept.
+ */
+// room for a few frames only
+@TestPropertySource(properties = "sse.fanout.max-buffered-bytes=1KB")
+class SlowConsumerFunctionalTest extends BaseFunctionalTest {
+
+    private static final int QUEUED = 12;
+
+    @Autowired
+    private RSocketRequester.Builder requesterBuilder;
+
+    @Autowired
+    private SubscriptionRegistry subscriptionRegistry;
+
+    @Autowired
+    private SlowConsumerStats slowConsumerStats;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalRSocketServerPort
+    private int rSocketPort;
+
+    private final List<RSocketRequester> requesters = new ArrayList<>();
+    private final String userId = "slow-user-" + UUID.randomUUID();
+
+    @BeforeEach
+    void awaitPreviousStreamsClosed() {
+        await(() -> subscriptionRegistry.size() == 0);
+    }
+
+    @AfterEach
+    void closeRequesters() {
+        requesters.forEach(RSocketRequester::dispose);
+    }
+
+    @Test
+    @DisplayName("Slow consumer: DROP_OLDEST keeps the newest events that fit the budget")
+    void shouldDropOldest() {
+        var dropped = slowConsumerStats.snapshot(SlowConsumerPolicy.DROP_OLDEST).dropped();
+        var consumer = subscribe(SlowConsumerPolicy.DROP_OLDEST);
+
+        var queued = publishWhileStalled(consumer);
+        var droppedNow = slowConsumerStats.snapshot(SlowConsumerPolicy.DROP_OLDEST).dropped() - dropped;
+        assertThat(droppedNow).isPositive().isLessThan(QUEUED);
+
+        consumer.request(QUEUED);
+        var kept = (int) (QUEUED - droppedNow);
+        assertThat(consumer.take(kept)).containsExactlyElementsOf(queued.subList(QUEUED - kept, QUEUED));
+    }
+
+    @Test
+    @DisplayName("Slow consumer: DROP_NEWEST keeps the oldest queued events and rejects the rest")
+    void shouldDropNewest() {
+        var dropped = slowConsumerStats.snapshot(SlowConsumerPolicy.DROP_NEWEST).dropped();
+        var consumer = subscribe(SlowConsumerPolicy.DROP_NEWEST);
+
+        var queued = publishWhileStalled(consumer);
+        var droppedNow = slowConsumerStats.snapshot(SlowConsumerPolicy.DROP_NEWEST).dropped() - dropped;
+        assertThat(droppedNow).isPositive().isLessThan(QUEUED);
+
+        consumer.request(QUEUED);
+        var kept = (int) (QUEUED - droppedNow);
+        assertThat(consumer.take(kept)).containsExactlyElementsOf(queued.subList(0, kept));
+    }
+
+    @Test
+    @DisplayName("Slow consumer: DISCONNECT ends the stream once the budget is exceeded")
+    void shouldDisconnect() {
+        var disconnects = slowConsumerStats.snapshot(SlowConsumerPolicy.DISCONNECT).disconnects();
+        var consumer = subscribe(SlowConsumerPolicy.DISCONNECT);
+
+        publishWhileStalled(consumer);
+
+        await(() -> consumer.error != null);
+        assertThat(consumer.error).hasMessageContaining("exceeded its buffer");
+        assertThat(consumer.received).isEmpty();
+        assertThat(slowConsumerStats.snapshot(SlowConsumerPolicy.DISCONNECT).disconnects())
+                .isEqualTo(disconnects + 1);
+    }
+
+    @Test
+    @DisplayName("Slow consumer: the per-policy counters are published as meters")
+    void shouldReportStreamStats() {
+        shouldDropNewest();
+
+        var dropNewest = slowConsumerStats.snapshot(SlowConsumerPolicy.DROP_NEWEST);
+        assertThat(dropNewest.enqueued()).isPositive();
+        assertThat(dropNewest.dropped()).isPositive();
+        assertThat(dropNewest.highWaterBytes()).isPositive().isLessThanOrEqualTo(1024);
+
+        assertThat(meterRegistry.get("sse.fanout.enqueued").tag("policy", "drop_newest").functionCounter().count())
+                .isEqualTo(dropNewest.enqueued());
+        assertThat(meterRegistry.get("sse.fanout.dropped").tag("policy", "drop_newest").functionCounter().count())
+                .isEqualTo(dropNewest.dropped());
+        assertThat(meterRegistry.get("sse.fanout.buffer.high.water").tag("policy", "drop_newest").gauge().value())
+                .isEqualTo(dropNewest.highWaterBytes());
+        assertThat(meterRegistry.find("sse.fanout.dropped").functionCounters()).hasSize(SlowConsumerPolicy.values().length);
+    }
+
+    /**
+     * Opens a stream for this test's user that requests one event up front and no more.
+     */
+    private StalledConsumer subscribe(SlowConsumerPolicy policy) {
+        var requester = requesterBuilder.dataMimeType(MediaType.APPLICATION_JSON).tcp("localhost", rSocketPort);
+        requesters.add(requester);
+        var streamRequest = new TransactionStreamRequest();
+        streamRequest.setUserId(userId);
+        streamRequest.setSlowConsumerPolicy(policy);
+        var consumer = new StalledConsumer();
+        requester.route(RSocketConfiguration.STREAM_ALL_TRANSACTIONS)
+                .data(streamRequest)
+                .retrieveFlux(TransactionsEntity.class)
+                .subscribe(consumer);
+        await(() -> subscriptionRegistry.size() == 1 && subscriptionRegistry.pendingDispatches() == 0);
+        return consumer;
+    }
+
+    /**
+     * Publishes one event and waits for it, which leaves the stream with no outstanding demand,
+     * then publishes {@link #QUEUED} more and waits until each has reached the subscriber's queue.
+     */
+    private List<UUID> publishWhileStalled(StalledConsumer consumer) {
+        var first = publish();
+        assertThat(consumer.take(1)).containsExactly(first);
+
+        var queued = IntStream.range(0, QUEUED).mapToObj(i -> publish()).toList();
+        await(() -> subscriptionRegistry.pendingDispatches() == 0);
+        return queued;
+    }
+
+    private UUID publish() {
+        var request = random(TransactionsRequest.class);
+        request.setUserId(userId);
+        client.post()
+                .uri("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk();
+        return request.getId();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Flux.interval(Duration.ofMillis(20))
+                .filter(tick -> condition.getAsBoolean())
+                .blockFirst(Duration.ofSeconds(10));
+    }
+
+    private static final class StalledConsumer extends BaseSubscriber<TransactionsEntity> {
+
+        private final BlockingQueue<UUID> received = new LinkedBlockingQueue<>();
+        private volatile Throwable error;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        protected void hookOnNext(TransactionsEntity transaction) {
+            received.add(transaction.getTransactionId());
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+
+        List<UUID> take(int count) {
+            var taken = new ArrayList<UUID>();
+            try {
+                for (int i = 0; i < count; i++) {
+                    var next = received.poll(10, TimeUnit.SECONDS);
+                    assertThat(next).as("event %d of %d", i + 1, count).isNotNull();
+                    taken.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return taken;
+        }
+    }
+}
@@ -23,8 +23,9 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 class SseFunctionalTest extends BaseFunctionalTest {
 
-    private static final UUID TRANSACTION_ID_1 = UUID.fromString("221dc9a8-81e7-4bee-afc8-3cd83aae580d");
-    private static final UUID TRANSACTION_ID_2 = UUID.fromString("221dc9a8-81e7-4bee-afc8-3cd83aae580b");
+    // transaction ids are idempotency keys, so every test needs its own
+    private final UUID transactionId1 = UUID.randomUUID();
+    private final UUID transactionId2 = UUID.randomUUID();
 
     @Autowired
     private WebTestClient webTestClient;
@@ -39,7 +40,10 @@ class SseFunctionalTest extends BaseFunctionalTest {
     @Test
     @DisplayName("Cold Publisher: Stream all transactions from the beginning")
     void shouldStreamAllTransactions() {
-        var request1 = createTransactionRequest(TRANSACTION_ID_1);
+        // transactions published by earlier tests are still replayed, so the stream is narrowed to one user
+        var userId = "all-user-" + UUID.randomUUID();
+        var request1 = createTransactionRequest(transactionId1);
+        request1.setUserId(userId);
         webTestClient.post()
                 .uri("/api/transactions")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -47,7 +51,8 @@ class SseFunctionalTest extends BaseFunctionalTest {
                 .exchange()
                 .expectStatus().isOk();
 
-        var request2 = createTransactionRequest(TRANSACTION_ID_2);
+        var request2 = createTransactionRequest(transactionId2);
+        request2.setUserId(userId);
         webTestClient.post()
                 .uri("/api/transactions")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -56,7 +61,7 @@ class SseFunctionalTest extends BaseFunctionalTest {
                 .expectStatus().isOk();
 
         var allTransactionsStream = webTestClient.get()
-                .uri("/api/transactions/stream/all")
+                .uri("/api/transactions/stream/all?userId=" + userId)
                 .accept(MediaType.TEXT_EVENT_STREAM)
                 .exchange()
                 .expectStatus().isOk()
@@ -65,8 +70,8 @@ class SseFunctionalTest extends BaseFunctionalTest {
                 .getResponseBody();
 
         StepVerifier.create(allTransactionsStream)
-                .expectNextMatches(tx -> tx.getTransactionId().equals(TRANSACTION_ID_1))
-                .expectNextMatches(tx -> tx.getTransactionId().equals(TRANSACTION_ID_2))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transactionId1))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(transactionId2))
                 .thenCancel()
                 .verify(Duration.ofSeconds(5));
     }
@@ -74,7 +79,7 @@ class SseFunctionalTest extends BaseFunctionalTest {
     @Test
     @DisplayName("Hot Publisher: Stream only new transactions after subscription")
     void shouldStreamNewTransactions() {
-        TransactionsRequest request1 = createTransactionRequest(TRANSACTION_ID_1);
+        TransactionsRequest request1 = createTransactionRequest(transactionId1);
         webTestClient.post()
                 .uri("/api/transactions")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -97,7 +102,7 @@ class SseFunctionalTest extends BaseFunctionalTest {
         var secondTransactionFuture = CompletableFuture.runAsync(() -> {
             try {
                 Thread.sleep(1000);
-                TransactionsRequest request2 = createTransactionRequest(TRANSACTION_ID_2);
+                TransactionsRequest request2 = createTransactionRequest(transactionId2);
                 webTestClient.post()
                         .uri("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -119,7 +124,7 @@ class SseFunctionalTest extends BaseFunctionalTest {
         StepVerifier.create(newTransactionsStream)
                 .expectNextMatches(tx -> {
                     System.out.println("Received in StepVerifier: " + tx);
-                    return tx.getTransactionId().equals(TRANSACTION_ID_2);
+                    return tx.getTransactionId().equals(transactionId2);
                 })
                 .thenCancel()
                 .verify(Duration.ofSeconds(10));
@@ -0,0 +1,103 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+class StreamEncodingFunctionalTest extends BaseFunctionalTest {
+
+    private final String userId = "encoding-user-" + UUID.randomUUID();
+
+    @Test
+    @DisplayName("Encodings: an NDJSON stream is negotiated from Accept")
+    void shouldStreamNdjson() {
+        var request = random(TransactionsRequest.class);
+        request.setUserId(userId);
+
+        var transactions = client.get()
+                .uri("/api/transactions/stream/new?userId=" + userId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody();
+
+        StepVerifier.create(transactions)
+                .then(() -> publish(request))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(request.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Encodings: a gzip stream can be inflated frame by frame")
+    void shouldStreamGzipFrames() {
+        var request = random(TransactionsRequest.class);
+        request.setUserId(userId);
+        var transactionId = request.getId().toString();
+
+        var inflater = new Inflater(true);
+        var gzipHeader = new int[]{10};
+        var text = client.get()
+                .uri("/api/transactions/stream/new?userId=" + userId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .returnResult(byte[].class)
+                .getResponseBody()
+                .map(chunk -> inflate(inflater, gzipHeader, chunk));
+
+        StepVerifier.create(text)
+                .then(() -> publish(request))
+                .thenConsumeWhile(chunk -> !chunk.contains(transactionId))
+                .expectNextMatches(chunk -> chunk.contains(transactionId))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+        inflater.end();
+    }
+
+    private void publish(TransactionsRequest request) {
+        client.post()
+                .uri("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    /**
+     * Inflates one chunk of a gzip stream; every frame is sync-flushed, so each chunk inflates
+     * completely without waiting for the next one.
+     */
+    private static String inflate(Inflater inflater, int[] gzipHeader, byte[] chunk) {
+        var skip = Math.min(gzipHeader[0], chunk.length);
+        gzipHeader[0] -= skip;
+        inflater.setInput(chunk, skip, chunk.length - skip);
+        var out = new ByteArrayOutputStream();
+        var buffer = new byte[8192];
+        try {
+            int inflated;
+            do {
+                inflated = inflater.inflate(buffer);
+                out.write(buffer, 0, inflated);
+            } while (inflated > 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+class StreamFilterFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Filtered: only transactions of the requested userId are streamed")
+    void shouldStreamOnlyMatchingUserTransactions() {
+        var userId = "mobile-user-" + UUID.randomUUID();
+        var otherUserRequest = random(TransactionsRequest.class);
+        var matchingRequest = random(TransactionsRequest.class);
+        otherUserRequest.setUserId("other-user-" + UUID.randomUUID());
+        matchingRequest.setUserId(userId);
+
+        var filteredStream = client.get()
+                .uri("/api/transactions/stream/new?userId=" + userId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionsEntity.class)
+                .getResponseBody();
+
+        StepVerifier.create(filteredStream)
+                .then(() -> List.of(otherUserRequest, matchingRequest).forEach(request -> client.post()
+                        .uri("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .exchange()
+                        .expectStatus().isOk()))
+                .expectNextMatches(tx -> tx.getTransactionId().equals(matchingRequest.getId())
+                        && tx.getUserId().equals(userId))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,123 @@
+package com.sse.service;
+
+import com.sse.service.service.stream.StalledWriteException;
+import com.sse.service.service.stream.StreamAdmission;
+import com.sse.service.service.stream.StreamEncoding;
+import com.sse.service.service.stream.StreamKeepAlive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@TestPropertySource(properties = {
+        "sse.stream.heartbeat-interval=200ms",
+        "sse.stream.write-stall-timeout=1s",
+        "sse.stream.max-connections=3",
+        "sse.stream.max-connections-per-user=1",
+        "sse.stream.retry-after=7s"
+})
+class StreamLifecycleFunctionalTest extends BaseFunctionalTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private StreamAdmission streamAdmission;
+
+    @Autowired
+    private StreamKeepAlive streamKeepAlive;
+
+    @BeforeEach
+    void awaitPreviousStreamsClosed() {
+        Flux.interval(Duration.ofMillis(20))
+                .filter(tick -> streamAdmission.connections() == 0)
+                .blockFirst(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Lifecycle: idle streams receive comment heartbeats")
+    void shouldSendHeartbeatsOnIdleStream() {
+        var events = client.get()
+                .uri("/api/transactions/stream/new?userId=" + UUID.randomUUID())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT)
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .expectNextMatches(event -> event.comment() != null && event.data() == null)
+                .expectNextMatches(event -> event.comment() != null && event.data() == null)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Lifecycle: connections beyond the per-user cap are rejected with 429 and Retry-After")
+    void shouldRejectConnectionsBeyondPerUserCap() {
+        var uri = "/api/transactions/stream/new?userId=" + UUID.randomUUID();
+        var first = openStream(uri);
+
+        client.get()
+                .uri(uri)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "7");
+
+        first.dispose();
+    }
+
+    @Test
+    @DisplayName("Lifecycle: connections beyond the instance cap are rejected with 503 and Retry-After")
+    void shouldRejectConnectionsBeyondInstanceCap() {
+        List<Disposable> open = IntStream.range(0, 3)
+                .mapToObj(i -> openStream("/api/transactions/stream/new?userId=" + UUID.randomUUID()))
+                .toList();
+
+        client.get()
+                .uri("/api/transactions/stream/new?userId=" + UUID.randomUUID())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "7");
+
+        open.forEach(Disposable::dispose);
+    }
+
+    @Test
+    @DisplayName("Lifecycle: a stream whose writer stops demanding is closed after the stall timeout")
+    void shouldCloseStalledStream() {
+        // a writer that takes the first heartbeat and then never drains again
+        StepVerifier.create(streamKeepAlive.apply(Flux.never(), StreamEncoding.SSE), 1)
+                .expectNextCount(1)
+                .expectError(StalledWriteException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private Disposable openStream(String uri) {
+        return client.get()
+                .uri(uri)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT)
+                .getResponseBody()
+                .subscribe();
+    }
+}
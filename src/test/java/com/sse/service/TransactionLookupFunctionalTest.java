@@ -0,0 +1,112 @@
+package com.sse.service;
+
+import com.sse.service.api.request.TransactionsRequest;
+import com.sse.service.api.response.TransactionsResponse;
+import com.sse.service.persistent.postgres.entity.TransactionsEntity;
+import com.sse.service.service.lookup.TransactionLookup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionLookupFunctionalTest extends BaseFunctionalTest {
+
+    private static final int CONCURRENT_LOOKUPS = 20;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Lookup: a saved transaction is served from the cache without a miss")
+    void shouldFindSavedTransaction() {
+        var request = transaction();
+        client.post()
+                .uri("/api/transactions")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk();
+        var misses = misses();
+
+        var found = lookup(request.getId());
+
+        assertThat(found.getUserId()).isEqualTo(request.getUserId());
+        assertThat(found.getId()).isNotNull();
+        assertThat(misses()).isEqualTo(misses);
+    }
+
+    @Test
+    @DisplayName("Lookup: concurrent misses for one id are loaded by a single query")
+    void shouldCoalesceConcurrentMisses() {
+        // batch saves are not written through, so the first lookup misses
+        var request = transaction();
+        client.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(request), TransactionsRequest.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .blockLast();
+        var misses = misses();
+
+        List<TransactionsEntity> found = Flux.range(0, CONCURRENT_LOOKUPS)
+                .parallel(CONCURRENT_LOOKUPS)
+                .runOn(Schedulers.boundedElastic())
+                .map(i -> lookup(request.getId()))
+                .sequential()
+                .collectList()
+                .block();
+
+        assertThat(found).hasSize(CONCURRENT_LOOKUPS)
+                .allSatisfy(transaction -> assertThat(transaction.getTransactionId()).isEqualTo(request.getId()));
+        assertThat(misses()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    @DisplayName("Lookup: unknown ids are 404 and malformed ids are 400")
+    void shouldRejectUnknownAndMalformedIds() {
+        client.get()
+                .uri("/api/transactions/{transactionId}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(TransactionsResponse.class);
+
+        client.get()
+                .uri("/api/transactions/{transactionId}", "not-a-uuid")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private TransactionsEntity lookup(UUID transactionId) {
+        return client.get()
+                .uri("/api/transactions/{transactionId}", transactionId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransactionsEntity.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private double misses() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", TransactionLookup.CACHE_NAME)
+                .tag("result", "miss")
+                .functionCounter()
+                .count();
+    }
+
+    private TransactionsRequest transaction() {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        return request;
+    }
+}